@@ -0,0 +1,42 @@
+package com.chess.spring.game;
+
+public class AnalysisBudget {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final long maxNodes;
+    private volatile boolean preempted;
+
+    public AnalysisBudget(long deadlineNanos, long maxNodes) {
+        this.deadlineNanos = deadlineNanos;
+        this.maxNodes = maxNodes;
+    }
+
+    public boolean shouldStop(long nodes) {
+        return preempted || nodes >= maxNodes || System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public boolean isPreempted() {
+        return preempted;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public long getMaxNodes() {
+        return maxNodes;
+    }
+
+    void preempt() {
+        preempted = true;
+    }
+
+    AnalysisBudget renew() {
+        return new AnalysisBudget(deadlineNanos, maxNodes);
+    }
+}
@@ -0,0 +1,211 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class AnalysisCache implements AutoCloseable {
+    private static final int SPILL_MAGIC = 0x41434348;
+    private static final int SPILL_VERSION = 1;
+    private static final int SEGMENTS = 16;
+    private static final int ENTRY_BYTES = 96;
+    private static final int STRING_BYTES = 40;
+    private static final Logger LOGGER = Logger.getLogger(AnalysisCache.class.getName());
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Path spillFile;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public AnalysisCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    public AnalysisCache(long maxBytes, Path spillFile) {
+        if (maxBytes < (long) SEGMENTS * ENTRY_BYTES) {
+            throw new IllegalArgumentException("Cache budget must cover at least " + SEGMENTS + " entries: " + maxBytes);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxBytes / SEGMENTS);
+        }
+        this.spillFile = spillFile;
+        if (spillFile != null && Files.exists(spillFile)) {
+            load(spillFile);
+        }
+    }
+
+    public AnalysisResult get(String fen, int minDepth) throws InvalidDataException {
+        return get(ZobristHash.hash(fen), minDepth);
+    }
+
+    public AnalysisResult get(Board board, int minDepth) {
+        return get(ZobristHash.hash(board), minDepth);
+    }
+
+    public AnalysisResult get(long hash, int minDepth) {
+        AnalysisResult result = segment(hash).get(hash);
+        if (result == null || result.getDepth() < minDepth) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return result;
+    }
+
+    public void put(Board board, AnalysisResult result) {
+        put(ZobristHash.hash(board), result);
+    }
+
+    public void put(long hash, AnalysisResult result) {
+        segment(hash).put(hash, result);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.bytes();
+        }
+        return bytes;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public void spill() throws IOException {
+        if (spillFile == null) {
+            return;
+        }
+        Path temporary = spillFile.resolveSibling(spillFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(SPILL_MAGIC);
+            out.writeInt(SPILL_VERSION);
+            out.writeInt(SEGMENTS);
+            for (Segment segment : segments) {
+                segment.writeTo(out);
+            }
+        }
+        Files.move(temporary, spillFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        spill();
+    }
+
+    private Segment segment(long hash) {
+        return segments[(int) (hash >>> 60) & (SEGMENTS - 1)];
+    }
+
+    private void load(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SPILL_MAGIC || in.readInt() != SPILL_VERSION) {
+                throw new IOException("Unrecognised spill header");
+            }
+            int segmentCount = in.readInt();
+            for (int segment = 0; segment < segmentCount; segment++) {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long hash = in.readLong();
+                    int score = in.readInt();
+                    int depth = in.readShort();
+                    String bestMove = in.readUTF();
+                    segment(hash).put(hash, new AnalysisResult(score, depth, bestMove.isEmpty() ? null : bestMove));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Discarding unreadable analysis cache " + file, e);
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException deleteFailure) {
+                LOGGER.log(Level.WARNING, "Cannot delete analysis cache " + file, deleteFailure);
+            }
+        }
+    }
+
+    static long estimatedBytes(AnalysisResult result) {
+        String bestMove = result.getBestMove();
+        return bestMove == null ? ENTRY_BYTES : ENTRY_BYTES + STRING_BYTES + (bestMove.length() + 7 & ~7);
+    }
+
+    private static class Segment {
+        private final Map<Long, AnalysisResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final long capacityBytes;
+        private long bytes;
+
+        Segment(long capacityBytes) {
+            this.capacityBytes = capacityBytes;
+        }
+
+        synchronized AnalysisResult get(long hash) {
+            return entries.get(hash);
+        }
+
+        synchronized void put(long hash, AnalysisResult result) {
+            AnalysisResult existing = entries.get(hash);
+            if (existing != null && existing.getDepth() > result.getDepth()) {
+                return;
+            }
+            entries.put(hash, result);
+            bytes += estimatedBytes(result) - (existing == null ? 0 : estimatedBytes(existing));
+            Iterator<AnalysisResult> eldest = entries.values().iterator();
+            while (bytes > capacityBytes && eldest.hasNext()) {
+                bytes -= estimatedBytes(eldest.next());
+                eldest.remove();
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            bytes = 0;
+        }
+
+        synchronized void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, AnalysisResult> entry : entries.entrySet()) {
+                AnalysisResult result = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeInt(result.getScore());
+                out.writeShort(result.getDepth());
+                out.writeUTF(result.getBestMove() == null ? "" : result.getBestMove());
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.chess.spring.game;
+
+public class AnalysisResult {
+    private final int score;
+    private final int depth;
+    private final String bestMove;
+
+    public AnalysisResult(int score, int depth, String bestMove) {
+        this.score = score;
+        this.depth = depth;
+        this.bestMove = bestMove;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public String getBestMove() {
+        return bestMove;
+    }
+
+    @Override
+    public String toString() {
+        return "AnalysisResult{score=" + score + ", depth=" + depth + ", bestMove=" + bestMove + "}";
+    }
+}
@@ -0,0 +1,226 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AnalysisScheduler implements AutoCloseable {
+    private static final long NO_DEADLINE_NANOS = Long.MAX_VALUE >> 1;
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    public interface Analysis<R> {
+        R analyse(Board board, AnalysisBudget budget);
+    }
+
+    private final PriorityBlockingQueue<Job<?>> queue = new PriorityBlockingQueue<>();
+    private final Set<Job<?>> running = ConcurrentHashMap.newKeySet();
+    private final Thread[] workers;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger[] queueDepth = new AtomicInteger[Priority.values().length];
+    private final LongAdder[] waitNanos = new LongAdder[Priority.values().length];
+    private final LongAdder[] started = new LongAdder[Priority.values().length];
+    private final AtomicLong[] maxWaitNanos = new AtomicLong[Priority.values().length];
+    private final LongAdder preemptions = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private volatile boolean closed;
+
+    public AnalysisScheduler(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + maxConcurrency);
+        }
+        for (Priority priority : Priority.values()) {
+            queueDepth[priority.ordinal()] = new AtomicInteger();
+            waitNanos[priority.ordinal()] = new LongAdder();
+            started[priority.ordinal()] = new LongAdder();
+            maxWaitNanos[priority.ordinal()] = new AtomicLong();
+        }
+        workers = new Thread[maxConcurrency];
+        for (int i = 0; i < maxConcurrency; i++) {
+            workers[i] = new Thread(this::work, "analysis-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public <R> CompletableFuture<R> submit(String fen, Priority priority, Analysis<R> analysis) {
+        return submit(fen, priority, AnalysisBudget.UNLIMITED, AnalysisBudget.UNLIMITED, analysis);
+    }
+
+    public <R> CompletableFuture<R> submit(String fen, Priority priority, long timeoutMillis, long maxNodes,
+                                           Analysis<R> analysis) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Board board;
+        try {
+            board = FenService.parse(fen);
+        } catch (InvalidDataException | RuntimeException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+        return submit(board, priority, timeoutMillis, maxNodes, analysis);
+    }
+
+    public <R> CompletableFuture<R> submit(Board board, Priority priority, long timeoutMillis, long maxNodes,
+                                           Analysis<R> analysis) {
+        if (closed) {
+            throw new IllegalStateException("Scheduler is closed");
+        }
+        long now = System.nanoTime();
+        long deadline = now + Math.min(TimeUnit.MILLISECONDS.toNanos(timeoutMillis), NO_DEADLINE_NANOS);
+        Job<R> job = new Job<>(board, priority, analysis, new AnalysisBudget(deadline, maxNodes),
+                sequence.getAndIncrement(), now);
+        enqueue(job);
+        if (priority == Priority.INTERACTIVE) {
+            preemptBackgroundJob();
+        }
+        return job.result;
+    }
+
+    public int getQueueDepth(Priority priority) {
+        return queueDepth[priority.ordinal()].get();
+    }
+
+    public int getRunningCount() {
+        return running.size();
+    }
+
+    public long getAverageWaitMillis(Priority priority) {
+        long count = started[priority.ordinal()].sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos[priority.ordinal()].sum() / count);
+    }
+
+    public long getMaxWaitMillis(Priority priority) {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos[priority.ordinal()].get());
+    }
+
+    public long getPreemptionCount() {
+        return preemptions.sum();
+    }
+
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        Job<?> job;
+        while ((job = queue.poll()) != null) {
+            queueDepth[job.priority.ordinal()].decrementAndGet();
+            job.result.completeExceptionally(new CancellationException("Scheduler is closed"));
+        }
+    }
+
+    private void enqueue(Job<?> job) {
+        queueDepth[job.priority.ordinal()].incrementAndGet();
+        queue.add(job);
+        if (closed && queue.remove(job)) {
+            queueDepth[job.priority.ordinal()].decrementAndGet();
+            job.result.completeExceptionally(new CancellationException("Scheduler is closed"));
+        }
+    }
+
+    private void preemptBackgroundJob() {
+        if (running.size() < workers.length) {
+            return;
+        }
+        Job<?> victim = null;
+        for (Job<?> job : running) {
+            if (job.priority == Priority.BACKGROUND && !job.budget.isPreempted() &&
+                    (victim == null || job.sequence > victim.sequence)) {
+                victim = job;
+            }
+        }
+        if (victim != null) {
+            victim.budget.preempt();
+            preemptions.increment();
+        }
+    }
+
+    private void work() {
+        while (!closed) {
+            Job<?> job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            queueDepth[job.priority.ordinal()].decrementAndGet();
+            run(job);
+        }
+    }
+
+    private <R> void run(Job<R> job) {
+        if (!job.dispatched) {
+            job.dispatched = true;
+            long wait = System.nanoTime() - job.enqueuedNanos;
+            waitNanos[job.priority.ordinal()].add(wait);
+            started[job.priority.ordinal()].increment();
+            maxWaitNanos[job.priority.ordinal()].accumulateAndGet(wait, Math::max);
+        }
+        if (job.budget.isExpired()) {
+            expired.increment();
+            job.result.completeExceptionally(new TimeoutException("Analysis deadline passed while queued"));
+            return;
+        }
+        running.add(job);
+        try {
+            R value = job.analysis.analyse(job.board, job.budget);
+            if (job.budget.isPreempted() && !closed) {
+                job.budget = job.budget.renew();
+                enqueue(job);
+                return;
+            }
+            job.result.complete(value);
+        } catch (Throwable e) {
+            job.result.completeExceptionally(e);
+        } finally {
+            running.remove(job);
+        }
+    }
+
+    private static class Job<R> implements Comparable<Job<?>> {
+        private final Board board;
+        private final Priority priority;
+        private final Analysis<R> analysis;
+        private final long sequence;
+        private final long enqueuedNanos;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        private volatile AnalysisBudget budget;
+        private boolean dispatched;
+
+        Job(Board board, Priority priority, Analysis<R> analysis, AnalysisBudget budget, long sequence,
+            long enqueuedNanos) {
+            this.board = board;
+            this.priority = priority;
+            this.analysis = analysis;
+            this.budget = budget;
+            this.sequence = sequence;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+
+        @Override
+        public int compareTo(Job<?> other) {
+            if (priority != other.priority) {
+                return priority.compareTo(other.priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+public class BatchEvaluator {
+    private static final int DEFAULT_CHUNK_SIZE = 512;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final ThreadLocal<PositionEvaluator> evaluators = ThreadLocal.withInitial(PositionEvaluator::new);
+
+    public BatchEvaluator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public BatchEvaluator(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public int[] evaluate(String[] fens) {
+        int[] scores = new int[fens.length];
+        pool.invoke(new FenChunk(fens, scores, 0, fens.length));
+        return scores;
+    }
+
+    public int[] evaluate(Stream<String> fens) {
+        return evaluate(fens.toArray(String[]::new));
+    }
+
+    public int[] evaluate(Board[] boards) {
+        int[] scores = new int[boards.length];
+        pool.invoke(new BoardChunk(boards, scores, 0, boards.length));
+        return scores;
+    }
+
+    private int evaluate(String fen) {
+        try {
+            return evaluators.get().evaluate(FenService.parse(fen));
+        } catch (InvalidDataException e) {
+            throw new RuntimeException("Invalid FEN String " + fen, e);
+        }
+    }
+
+    private class FenChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] fens;
+        private final int[] scores;
+        private final int from;
+        private final int to;
+
+        FenChunk(String[] fens, int[] scores, int from, int to) {
+            this.fens = fens;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    scores[i] = evaluate(fens[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FenChunk(fens, scores, from, middle), new FenChunk(fens, scores, middle, to));
+        }
+    }
+
+    private class BoardChunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Board[] boards;
+        private final int[] scores;
+        private final int from;
+        private final int to;
+
+        BoardChunk(Board[] boards, int[] scores, int from, int to) {
+            this.boards = boards;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                PositionEvaluator evaluator = evaluators.get();
+                for (int i = from; i < to; i++) {
+                    scores[i] = evaluator.evaluate(boards[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BoardChunk(boards, scores, from, middle), new BoardChunk(boards, scores, middle, to));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class Bitbase {
+    private static final int MAGIC = 0x42424231;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SIGNATURE_BYTES = 16;
+
+    private final String signature;
+    private final int pieceCount;
+    private final ByteBuffer buffer;
+
+    private Bitbase(String signature, int pieceCount, ByteBuffer buffer) {
+        this.signature = signature;
+        this.pieceCount = pieceCount;
+        this.buffer = buffer;
+    }
+
+    static Bitbase of(String signature, byte[] wins) {
+        int pieceCount = signature.length() - 1;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + wins.length / 8 + 1).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(buffer, signature, pieceCount);
+        for (int index = 0; index < wins.length; index++) {
+            if (wins[index] == BitbaseGenerator.WIN) {
+                int offset = HEADER_BYTES + (index >>> 3);
+                buffer.put(offset, (byte) (buffer.get(offset) | (1 << (index & 7))));
+            }
+        }
+        return new Bitbase(signature, pieceCount, buffer);
+    }
+
+    public static Bitbase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Invalid bitbase " + file);
+            }
+            int pieceCount = buffer.getInt(8);
+            byte[] name = new byte[SIGNATURE_BYTES];
+            buffer.duplicate().position(16).get(name);
+            String signature = new String(name, StandardCharsets.US_ASCII).trim();
+            if (buffer.capacity() < HEADER_BYTES + TablebaseIndex.entries(pieceCount) / 8) {
+                throw new IOException("Truncated bitbase " + file);
+            }
+            return new Bitbase(signature, pieceCount, buffer);
+        }
+    }
+
+    public void save(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = buffer.duplicate();
+            data.clear();
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public int getPieceCount() {
+        return pieceCount;
+    }
+
+    public boolean isWin(long index) {
+        return (buffer.get(HEADER_BYTES + (int) (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    public int probe(Board board) {
+        byte[] squares = TablebaseIndex.squares(board, new byte[BoardConfiguration.TILES_MAX]);
+        return probe(squares, FenService.isWhiteToMove(board));
+    }
+
+    public int probe(Position position) {
+        return probe(position.squares(), position.isWhiteToMove());
+    }
+
+    public int probe(byte[] squares, boolean whiteToMove) {
+        if (!TablebaseIndex.signature(squares).equals(signature)) {
+            return TablebaseProber.UNKNOWN;
+        }
+        long index = TablebaseIndex.index(squares, whiteToMove);
+        if (!isWin(index)) {
+            return TablebaseProber.WDL_DRAW;
+        }
+        boolean strongToMove = TablebaseIndex.isWhiteToMove(index, pieceCount);
+        return strongToMove ? TablebaseProber.WDL_WIN : TablebaseProber.WDL_LOSS;
+    }
+
+    private static void writeHeader(ByteBuffer buffer, String signature, int pieceCount) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, pieceCount);
+        byte[] name = signature.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < SIGNATURE_BYTES; i++) {
+            buffer.put(16 + i, i < name.length ? name[i] : (byte) ' ');
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class BitbaseGenerator {
+    public static final int MAX_PIECES = 4;
+
+    static final byte UNKNOWN = 0;
+    static final byte WIN = 1;
+    static final byte INVALID = 2;
+
+    private static final String BARE_KINGS = "KvK";
+    private static final int[] PROMOTIONS = {PieceCode.QUEEN, PieceCode.ROOK, PieceCode.BISHOP, PieceCode.KNIGHT};
+    private static final int PROMOTED = 8;
+
+    private final ForkJoinPool pool;
+    private final Map<String, Bitbase> tables = new ConcurrentHashMap<>();
+    private final ThreadLocal<Position> positions = ThreadLocal.withInitial(Position::new);
+    private final ThreadLocal<int[]> moveBuffers = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+    private final ThreadLocal<byte[]> squareBuffers = ThreadLocal.withInitial(() -> new byte[BoardConfiguration.TILES_MAX]);
+    private final ThreadLocal<int[]> keyBuffers = ThreadLocal.withInitial(() -> new int[MAX_PIECES]);
+
+    public BitbaseGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BitbaseGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public Bitbase generate(String signature) {
+        Bitbase cached = tables.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+        int[] codes = TablebaseIndex.pieceOrder(signature);
+        validate(signature, codes);
+        Bitbase[] children = generateChildren(codes);
+        String canonical = canonicalSignature(codes);
+        cached = tables.get(canonical);
+        if (cached != null) {
+            return cached;
+        }
+        int entries = (int) TablebaseIndex.entries(codes.length);
+        byte[] state = new byte[entries];
+        pool.submit(() -> IntStream.range(0, entries).parallel()
+                .forEach(index -> state[index] = initialState(index, codes))).join();
+        int changed;
+        do {
+            changed = pool.submit(() -> IntStream.range(0, entries).parallel()
+                    .map(index -> update(index, codes, state, children)).sum()).join();
+        } while (changed > 0);
+        Bitbase bitbase = Bitbase.of(canonical, state);
+        tables.put(canonical, bitbase);
+        tables.put(signature, bitbase);
+        return bitbase;
+    }
+
+    public int verifyRoundTrip(Bitbase bitbase, int samples, long seed) throws InvalidDataException {
+        int[] codes = TablebaseIndex.pieceOrder(bitbase.getSignature());
+        long entries = TablebaseIndex.entries(codes.length);
+        SplittableRandom random = new SplittableRandom(seed);
+        Position position = new Position();
+        byte[] squares = new byte[BoardConfiguration.TILES_MAX];
+        int verified = 0;
+        for (int attempt = 0; attempt < samples * 16 && verified < samples; attempt++) {
+            long index = random.nextLong(entries);
+            if (!load(position, index, codes, squares)) {
+                continue;
+            }
+            Board board = FenService.parse(position.toFen());
+            TablebaseIndex.squares(board, squares);
+            if (TablebaseIndex.index(squares, FenService.isWhiteToMove(board)) != index) {
+                throw new IllegalStateException("Index " + index + " does not round-trip through " + position.toFen());
+            }
+            verified++;
+        }
+        return verified;
+    }
+
+    private void validate(String signature, int[] codes) {
+        if (codes.length > MAX_PIECES) {
+            throw new IllegalArgumentException("Bitbases support at most " + MAX_PIECES + " pieces: " + signature);
+        }
+        int kings = 0;
+        for (int code : codes) {
+            if (PieceCode.isBlack(code) && PieceCode.type(code) != PieceCode.KING) {
+                throw new IllegalArgumentException("Only a bare defending king is supported: " + signature);
+            }
+            if (PieceCode.type(code) == PieceCode.KING) {
+                kings++;
+            }
+        }
+        if (kings != 2 || PieceCode.type(codes[0]) != PieceCode.KING) {
+            throw new IllegalArgumentException("Invalid material signature " + signature);
+        }
+    }
+
+    private Bitbase[] generateChildren(int[] codes) {
+        Bitbase[] children = new Bitbase[2 * PROMOTED];
+        for (int i = 1; i < codes.length; i++) {
+            if (PieceCode.isBlack(codes[i])) {
+                continue;
+            }
+            String capture = canonicalSignature(replace(codes, i, PieceCode.EMPTY));
+            if (!capture.equals(BARE_KINGS)) {
+                children[PieceCode.type(codes[i])] = generate(capture);
+            }
+            if (PieceCode.type(codes[i]) == PieceCode.PAWN) {
+                for (int promotion : PROMOTIONS) {
+                    children[PROMOTED + promotion] = generate(canonicalSignature(replace(codes, i, promotion)));
+                }
+            }
+        }
+        return children;
+    }
+
+    private byte initialState(int index, int[] codes) {
+        Position position = positions.get();
+        if (!load(position, index, codes, squareBuffers.get())) {
+            return INVALID;
+        }
+        boolean white = position.isWhiteToMove();
+        if (MoveGenerator.isAttacked(position, position.kingSquare(!white), white)) {
+            return INVALID;
+        }
+        return UNKNOWN;
+    }
+
+    private int update(int index, int[] codes, byte[] state, Bitbase[] children) {
+        if (state[index] != UNKNOWN) {
+            return 0;
+        }
+        Position position = positions.get();
+        load(position, index, codes, squareBuffers.get());
+        int[] moves = moveBuffers.get();
+        int[] keys = keyBuffers.get();
+        int count = MoveGenerator.legalMoves(position, moves);
+        if (position.isWhiteToMove()) {
+            for (int i = 0; i < count; i++) {
+                if (isWinAfter(position, moves[i], state, children, keys)) {
+                    state[index] = WIN;
+                    return 1;
+                }
+            }
+            return 0;
+        }
+        if (count == 0) {
+            if (MoveGenerator.isInCheck(position)) {
+                state[index] = WIN;
+                return 1;
+            }
+            return 0;
+        }
+        for (int i = 0; i < count; i++) {
+            if (!isWinAfter(position, moves[i], state, children, keys)) {
+                return 0;
+            }
+        }
+        state[index] = WIN;
+        return 1;
+    }
+
+    private boolean isWinAfter(Position position, int move, byte[] state, Bitbase[] children, int[] keys) {
+        int child = MoveGenerator.isCapture(position, move) ? PieceCode.type(position.piece(Move.to(move))) :
+                Move.promotion(move) != 0 ? PROMOTED + Move.promotion(move) : -1;
+        position.makeMove(move);
+        try {
+            long index = TablebaseIndex.index(position.squares(), position.isWhiteToMove(), keys);
+            if (child < 0) {
+                return state[(int) index] == WIN;
+            }
+            Bitbase table = children[child];
+            return table != null && table.isWin(index);
+        } finally {
+            position.unmakeMove(move);
+        }
+    }
+
+    private static boolean load(Position position, long index, int[] codes, byte[] squares) {
+        if (!TablebaseIndex.decode(index, codes, squares)) {
+            return false;
+        }
+        position.clear();
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            if (squares[square] != PieceCode.EMPTY) {
+                position.put(square, squares[square]);
+            }
+        }
+        position.setState(TablebaseIndex.isWhiteToMove(index, codes.length), 0, -1, 0, 1);
+        return true;
+    }
+
+    private static int[] replace(int[] codes, int position, int type) {
+        int[] result = new int[type == PieceCode.EMPTY ? codes.length - 1 : codes.length];
+        int count = 0;
+        for (int i = 0; i < codes.length; i++) {
+            if (i != position) {
+                result[count++] = codes[i];
+            } else if (type != PieceCode.EMPTY) {
+                result[count++] = type;
+            }
+        }
+        return result;
+    }
+
+    private static String canonicalSignature(int[] codes) {
+        byte[] squares = new byte[BoardConfiguration.TILES_MAX];
+        for (int i = 0; i < codes.length; i++) {
+            squares[i + 8] = (byte) codes[i];
+        }
+        return TablebaseIndex.signature(squares);
+    }
+}
@@ -0,0 +1,86 @@
+package com.chess.spring.game;
+
+public class BlockedBloomFilter {
+    private static final int BLOCK_WORDS = 8;
+    private static final int BLOCK_BITS = BLOCK_WORDS * 64;
+
+    private final long[] words;
+    private final long blocks;
+    private final int probes;
+    private long insertions;
+
+    public BlockedBloomFilter(long expectedInsertions, int bitsPerKey) {
+        if (expectedInsertions <= 0 || bitsPerKey <= 0) {
+            throw new IllegalArgumentException("Invalid bloom filter size: " + expectedInsertions + "/" + bitsPerKey);
+        }
+        long blockCount = Math.max(1, (expectedInsertions * bitsPerKey + BLOCK_BITS - 1) / BLOCK_BITS);
+        if (blockCount * BLOCK_WORDS > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Bloom filter too large: " + expectedInsertions);
+        }
+        this.blocks = blockCount;
+        this.words = new long[(int) (blockCount * BLOCK_WORDS)];
+        this.probes = Math.max(1, Math.min(16, (int) Math.round(bitsPerKey * 0.69)));
+    }
+
+    public boolean put(long hash) {
+        long mixed = mix(hash);
+        int base = block(mixed);
+        int h1 = (int) mixed;
+        int h2 = (int) ((mixed * 0x9E3779B97F4A7C15L) >>> 32) | 1;
+        boolean changed = false;
+        for (int i = 0; i < probes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            int word = base + (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                changed = true;
+            }
+        }
+        if (changed) {
+            insertions++;
+        }
+        return changed;
+    }
+
+    public boolean mightContain(long hash) {
+        long mixed = mix(hash);
+        int base = block(mixed);
+        int h1 = (int) mixed;
+        int h2 = (int) ((mixed * 0x9E3779B97F4A7C15L) >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public long getBitCount() {
+        return (long) words.length * 64;
+    }
+
+    public int getProbes() {
+        return probes;
+    }
+
+    public double expectedFalsePositiveRate() {
+        double perBlock = (double) insertions / blocks;
+        return Math.pow(1 - Math.exp(-probes * perBlock / BLOCK_BITS), probes);
+    }
+
+    private int block(long mixed) {
+        return (int) (((mixed >>> 32) * blocks) >>> 32) * BLOCK_WORDS;
+    }
+
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,132 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+import com.chess.spring.game.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Read-only stand-in for {@link Board} backed by a {@code byte[64]} mailbox and one packed state word. It does not
+ * extend Board: Board is a concrete class outside this module that can only be built through BoardBuilder, which
+ * creates every piece object up front, so a subclass would keep the allocations this class exists to avoid.
+ * CompactBoard mirrors the piece accessor, {@link #getPiece(int)}, and converts back with {@link #toBoard()} where
+ * code needs a full Board.
+ */
+public final class CompactBoard {
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int CASTLING_SHIFT = 1;
+    private static final int EN_PASSANT_SHIFT = 5;
+    private static final int HALFMOVE_SHIFT = 12;
+    private static final int FULLMOVE_SHIFT = 28;
+    private static final int NO_EN_PASSANT = 0x7F;
+    private static final int MAX_HALFMOVE = 0xFFFF;
+    private static final int MAX_FULLMOVE = 0xFFFF;
+
+    private final byte[] squares;
+    private final long state;
+
+    private CompactBoard(byte[] squares, long state) {
+        this.squares = squares;
+        this.state = state;
+    }
+
+    public static CompactBoard of(Board board) {
+        byte[] squares = TablebaseIndex.squares(board, new byte[BoardConfiguration.TILES_MAX]);
+        return new CompactBoard(squares, pack(FenService.isWhiteToMove(board), FenService.castlingMask(board),
+                FenService.enPassantSquare(board), 0, 1));
+    }
+
+    public static CompactBoard of(Position position) {
+        return new CompactBoard(position.squares().clone(), pack(position.isWhiteToMove(), position.getCastling(),
+                position.getEnPassant(), position.getHalfmoveClock(), position.getFullmoveNumber()));
+    }
+
+    public static CompactBoard fromFen(String fen) throws InvalidDataException {
+        return of(Position.fromFen(fen));
+    }
+
+    public Piece getPiece(int square) {
+        return PieceCode.toPiece(squares[square], square, getCastling());
+    }
+
+    public int pieceCode(int square) {
+        return squares[square];
+    }
+
+    public boolean isWhiteToMove() {
+        return (state & BLACK_TO_MOVE) == 0;
+    }
+
+    public int getCastling() {
+        return (int) (state >>> CASTLING_SHIFT) & 15;
+    }
+
+    public int getEnPassant() {
+        int enPassant = (int) (state >>> EN_PASSANT_SHIFT) & NO_EN_PASSANT;
+        return enPassant == NO_EN_PASSANT ? -1 : enPassant;
+    }
+
+    public int getHalfmoveClock() {
+        return (int) (state >>> HALFMOVE_SHIFT) & MAX_HALFMOVE;
+    }
+
+    public int getFullmoveNumber() {
+        return (int) (state >>> FULLMOVE_SHIFT) & MAX_FULLMOVE;
+    }
+
+    public void copyTo(Position position) {
+        position.clear();
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            if (squares[square] != PieceCode.EMPTY) {
+                position.put(square, squares[square]);
+            }
+        }
+        position.setState(isWhiteToMove(), getCastling(), getEnPassant(), getHalfmoveClock(), getFullmoveNumber());
+    }
+
+    public Position toPosition() {
+        Position position = new Position();
+        copyTo(position);
+        return position;
+    }
+
+    public Board toBoard() {
+        return toPosition().toBoard();
+    }
+
+    public String toFen() {
+        return toPosition().toFen();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CompactBoard)) {
+            return false;
+        }
+        CompactBoard board = (CompactBoard) other;
+        return state == board.state && Arrays.equals(squares, board.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(squares) + Long.hashCode(state);
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+
+    private static long pack(boolean whiteToMove, int castling, int enPassant, int halfmoveClock, int fullmoveNumber) {
+        return (whiteToMove ? 0 : BLACK_TO_MOVE) |
+                ((long) castling << CASTLING_SHIFT) |
+                ((long) (enPassant < 0 ? NO_EN_PASSANT : enPassant) << EN_PASSANT_SHIFT) |
+                ((long) Math.min(MAX_HALFMOVE, halfmoveClock) << HALFMOVE_SHIFT) |
+                ((long) Math.min(MAX_FULLMOVE, fullmoveNumber) << FULLMOVE_SHIFT);
+    }
+}
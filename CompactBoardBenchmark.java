@@ -0,0 +1,91 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+import com.chess.spring.game.pieces.Piece;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+public final class CompactBoardBenchmark {
+    private static final int DEFAULT_POSITIONS = 200_000;
+
+    private CompactBoardBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_POSITIONS;
+        List<Position> positions = randomPositions(count, 42);
+        measure(positions);
+        long[] bytes = measure(positions);
+        System.out.printf("positions:    %d%n", count);
+        System.out.printf("Board:        %d bytes/position%n", bytes[0] / count);
+        System.out.printf("Piece[64]:    %d bytes/position%n", bytes[1] / count);
+        System.out.printf("CompactBoard: %d bytes/position%n", bytes[2] / count);
+        System.out.printf("FEN String:   %d bytes/position%n", bytes[3] / count);
+    }
+
+    private static long[] measure(List<Position> positions) {
+        return new long[]{
+                retainedBytes(positions, Position::toBoard),
+                retainedBytes(positions, CompactBoardBenchmark::pieces),
+                retainedBytes(positions, CompactBoard::of),
+                retainedBytes(positions, Position::toFen)
+        };
+    }
+
+    static List<Position> randomPositions(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Position> positions = new ArrayList<>(count);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        Position position = Position.start();
+        while (positions.size() < count) {
+            int legal = MoveGenerator.legalMoves(position, moves);
+            if (legal == 0 || position.getHalfmoveClock() >= 100) {
+                position = Position.start();
+                continue;
+            }
+            position.makeMove(moves[random.nextInt(legal)]);
+            Position copy = new Position();
+            copy.copyFrom(position);
+            positions.add(copy);
+        }
+        return positions;
+    }
+
+    static Piece[] pieces(Position position) {
+        Piece[] pieces = new Piece[BoardConfiguration.TILES_MAX];
+        for (int square = 0; square < pieces.length; square++) {
+            if (position.piece(square) != PieceCode.EMPTY) {
+                pieces[square] = PieceCode.toPiece(position.piece(square), square, position.getCastling());
+            }
+        }
+        return pieces;
+    }
+
+    private static <T> long retainedBytes(List<Position> positions, Function<Position, T> convert) {
+        Object[] retained = new Object[positions.size()];
+        for (int i = 0; i < retained.length; i++) {
+            retained[i] = convert.apply(positions.get(i));
+        }
+        long with = usedMemory();
+        Reference.reachabilityFence(retained);
+        retained = null;
+        return with - usedMemory();
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
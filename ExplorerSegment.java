@@ -0,0 +1,242 @@
+package com.chess.spring.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class ExplorerSegment {
+    public static final int RECORD_BYTES = 36;
+    public static final int MAX_INPUTS = 256;
+    public static final long MAX_RECORDS = (Integer.MAX_VALUE - headerBytes(MAX_INPUTS)) / RECORD_BYTES;
+
+    private static final int MAGIC = 0x45585347;
+    private static final int VERSION = 2;
+
+    private final Path file;
+    private final long generation;
+    private final MappedByteBuffer buffer;
+    private final int records;
+    private final long[] inputs;
+    private final int dataOffset;
+
+    private ExplorerSegment(Path file, long generation, MappedByteBuffer buffer, int records, long[] inputs) {
+        this.file = file;
+        this.generation = generation;
+        this.buffer = buffer;
+        this.records = records;
+        this.inputs = inputs;
+        this.dataOffset = headerBytes(inputs.length);
+    }
+
+    public static ExplorerSegment open(Path file, long generation) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Invalid explorer segment " + file);
+            }
+            long records = buffer.getLong(8);
+            int inputCount = buffer.getInt(16);
+            if (inputCount < 0 || inputCount > MAX_INPUTS ||
+                    headerBytes(inputCount) + records * RECORD_BYTES != channel.size()) {
+                throw new IOException("Truncated explorer segment " + file);
+            }
+            long[] inputs = new long[inputCount];
+            for (int i = 0; i < inputCount; i++) {
+                inputs[i] = buffer.getLong(20 + i * 8);
+            }
+            return new ExplorerSegment(file, generation, buffer, (int) records, inputs);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public int size() {
+        return records;
+    }
+
+    public long[] getInputs() {
+        return inputs.clone();
+    }
+
+    public int find(long hash) {
+        int low = 0;
+        int high = records;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hash(middle) < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < records && hash(low) == hash ? low : -1;
+    }
+
+    public long hash(int record) {
+        return buffer.getLong(offset(record));
+    }
+
+    public int move(int record) {
+        return buffer.getInt(offset(record) + 8);
+    }
+
+    public long whiteWins(int record) {
+        return buffer.getLong(offset(record) + 12);
+    }
+
+    public long draws(int record) {
+        return buffer.getLong(offset(record) + 20);
+    }
+
+    public long blackWins(int record) {
+        return buffer.getLong(offset(record) + 28);
+    }
+
+    private int offset(int record) {
+        return dataOffset + record * RECORD_BYTES;
+    }
+
+    private static int headerBytes(int inputCount) {
+        return 20 + inputCount * 8;
+    }
+
+    public static ExplorerSegment merge(List<ExplorerSegment> inputs, Path file, long generation) throws IOException {
+        int[] cursors = new int[inputs.size()];
+        long[] generations = new long[inputs.size()];
+        for (int i = 0; i < generations.length; i++) {
+            generations[i] = inputs.get(i).getGeneration();
+        }
+        Writer writer = new Writer(file, generations);
+        try {
+            while (true) {
+                int best = -1;
+                for (int i = 0; i < inputs.size(); i++) {
+                    if (cursors[i] < inputs.get(i).size() &&
+                            (best < 0 || compare(inputs.get(i), cursors[i], inputs.get(best), cursors[best]) < 0)) {
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                ExplorerSegment first = inputs.get(best);
+                long hash = first.hash(cursors[best]);
+                int move = first.move(cursors[best]);
+                long white = 0;
+                long draw = 0;
+                long black = 0;
+                for (int i = 0; i < inputs.size(); i++) {
+                    ExplorerSegment segment = inputs.get(i);
+                    while (cursors[i] < segment.size() && segment.hash(cursors[i]) == hash &&
+                            segment.move(cursors[i]) == move) {
+                        white += segment.whiteWins(cursors[i]);
+                        draw += segment.draws(cursors[i]);
+                        black += segment.blackWins(cursors[i]);
+                        cursors[i]++;
+                    }
+                }
+                writer.append(hash, move, white, draw, black);
+            }
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        return open(file, generation);
+    }
+
+    private static int compare(ExplorerSegment a, int ra, ExplorerSegment b, int rb) {
+        int result = Long.compare(a.hash(ra), b.hash(rb));
+        return result != 0 ? result : Integer.compare(a.move(ra), b.move(rb));
+    }
+
+    public static class Writer implements AutoCloseable {
+        private final Path file;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        private final long[] inputs;
+        private long records;
+        private long lastHash = Long.MIN_VALUE;
+        private int lastMove = Integer.MIN_VALUE;
+
+        public Writer(Path file) throws IOException {
+            this(file, new long[0]);
+        }
+
+        public Writer(Path file, long[] inputs) throws IOException {
+            if (inputs.length > MAX_INPUTS) {
+                throw new IllegalArgumentException("Too many merge inputs: " + inputs.length);
+            }
+            this.file = file;
+            this.inputs = inputs.clone();
+            this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(headerBytes(inputs.length));
+        }
+
+        public void append(long hash, int move, long whiteWins, long draws, long blackWins) throws IOException {
+            if (hash < lastHash || (hash == lastHash && move <= lastMove)) {
+                throw new IllegalStateException("Segment records must be appended in (hash, move) order");
+            }
+            if (records == MAX_RECORDS) {
+                throw new IllegalStateException("Segment is full: " + file);
+            }
+            if (buffer.remaining() < RECORD_BYTES) {
+                drain();
+            }
+            buffer.putLong(hash).putInt(move).putLong(whiteWins).putLong(draws).putLong(blackWins);
+            lastHash = hash;
+            lastMove = move;
+            records++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(headerBytes(inputs.length)).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putLong(records).putInt(inputs.length);
+            for (long input : inputs) {
+                header.putLong(input);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            channel.close();
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        public void abort() throws IOException {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ExplorerStore implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".exs";
+    private static final int DEFAULT_FLUSH_MOVES = 1 << 20;
+    private static final int DEFAULT_MERGE_FACTOR = 4;
+    private static final long MERGE_RETRY_MILLIS = 1000;
+    private static final long MAX_MERGE_RETRY_MILLIS = 60_000;
+    private static final Logger LOGGER = Logger.getLogger(ExplorerStore.class.getName());
+
+    private final Path directory;
+    private final int flushMoves;
+    private final int mergeFactor;
+    private final AtomicLong generations = new AtomicLong();
+    private final ScheduledThreadPoolExecutor merger = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "explorer-merger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private OpeningExplorerIndex memtable = new OpeningExplorerIndex();
+    private volatile List<ExplorerSegment> segments;
+    private boolean merging;
+    private long mergeDelayMillis;
+
+    public ExplorerStore(Path directory) throws IOException {
+        this(directory, DEFAULT_FLUSH_MOVES, DEFAULT_MERGE_FACTOR);
+    }
+
+    public ExplorerStore(Path directory, int flushMoves, int mergeFactor) throws IOException {
+        this.directory = directory;
+        this.flushMoves = flushMoves;
+        this.mergeFactor = Math.min(ExplorerSegment.MAX_INPUTS, Math.max(2, mergeFactor));
+        merger.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        Files.createDirectories(directory);
+        List<ExplorerSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    long generation = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length()));
+                    loaded.add(ExplorerSegment.open(file, generation));
+                    generations.accumulateAndGet(generation, Math::max);
+                }
+            }
+        }
+        Set<Long> superseded = new HashSet<>();
+        for (ExplorerSegment segment : loaded) {
+            for (long input : segment.getInputs()) {
+                superseded.add(input);
+            }
+        }
+        List<ExplorerSegment> live = new ArrayList<>(loaded.size());
+        for (ExplorerSegment segment : loaded) {
+            if (superseded.contains(segment.getGeneration())) {
+                Files.deleteIfExists(segment.getFile());
+            } else {
+                live.add(segment);
+            }
+        }
+        live.sort(Comparator.comparingLong(ExplorerSegment::getGeneration));
+        this.segments = Collections.unmodifiableList(live);
+    }
+
+    public PgnListener newListener() {
+        return new GameBuffer(memtable.getMaxPlies());
+    }
+
+    public synchronized void addGame(long[] hashes, int[] moves, int plies, String result) {
+        memtable.addGame(hashes, moves, plies, result);
+        if (memtable.getMoveCount() >= flushMoves) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public List<MoveStats> query(String fen) throws InvalidDataException {
+        return query(ZobristHash.hash(fen));
+    }
+
+    public List<MoveStats> query(long hash) {
+        Map<Integer, long[]> totals = new HashMap<>();
+        List<ExplorerSegment> current;
+        synchronized (this) {
+            current = segments;
+            for (MoveStats stats : memtable.query(hash)) {
+                long[] counts = totals.computeIfAbsent(stats.getMove(), move -> new long[3]);
+                counts[OpeningExplorerIndex.WHITE_WIN] += stats.getWhiteWins();
+                counts[OpeningExplorerIndex.DRAW] += stats.getDraws();
+                counts[OpeningExplorerIndex.BLACK_WIN] += stats.getBlackWins();
+            }
+        }
+        for (ExplorerSegment segment : current) {
+            int record = segment.find(hash);
+            for (; record >= 0 && record < segment.size() && segment.hash(record) == hash; record++) {
+                long[] counts = totals.computeIfAbsent(segment.move(record), move -> new long[3]);
+                counts[OpeningExplorerIndex.WHITE_WIN] += segment.whiteWins(record);
+                counts[OpeningExplorerIndex.DRAW] += segment.draws(record);
+                counts[OpeningExplorerIndex.BLACK_WIN] += segment.blackWins(record);
+            }
+        }
+        List<MoveStats> result = new ArrayList<>(totals.size());
+        for (Map.Entry<Integer, long[]> entry : totals.entrySet()) {
+            long[] counts = entry.getValue();
+            result.add(new MoveStats(entry.getKey(), counts[OpeningExplorerIndex.WHITE_WIN],
+                    counts[OpeningExplorerIndex.DRAW], counts[OpeningExplorerIndex.BLACK_WIN]));
+        }
+        result.sort(Comparator.comparingLong(MoveStats::getTotal).reversed());
+        return result;
+    }
+
+    public List<ExplorerSegment> getSegments() {
+        return segments;
+    }
+
+    public synchronized void flush() throws IOException {
+        if (memtable.getMoveCount() == 0) {
+            return;
+        }
+        int count = memtable.getMoveCount();
+        long[] hashes = new long[count];
+        int[] moves = new int[count];
+        long[][] results = new long[3][count];
+        int[] cursor = new int[1];
+        memtable.forEach((hash, move, whiteWins, draws, blackWins) -> {
+            int i = cursor[0]++;
+            hashes[i] = hash;
+            moves[i] = move;
+            results[OpeningExplorerIndex.WHITE_WIN][i] = whiteWins;
+            results[OpeningExplorerIndex.DRAW][i] = draws;
+            results[OpeningExplorerIndex.BLACK_WIN][i] = blackWins;
+        });
+        int[] order = new int[count];
+        Arrays.setAll(order, i -> i);
+        sort(order, hashes, moves, 0, count - 1);
+        long generation = generations.incrementAndGet();
+        Path file = segmentFile(generation);
+        ExplorerSegment.Writer writer = new ExplorerSegment.Writer(file);
+        try {
+            for (int i : order) {
+                writer.append(hashes[i], moves[i], results[OpeningExplorerIndex.WHITE_WIN][i],
+                        results[OpeningExplorerIndex.DRAW][i], results[OpeningExplorerIndex.BLACK_WIN][i]);
+            }
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+        List<ExplorerSegment> updated = new ArrayList<>(segments);
+        updated.add(ExplorerSegment.open(file, generation));
+        segments = Collections.unmodifiableList(updated);
+        memtable.clear();
+        scheduleMerge();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        merger.shutdown();
+        try {
+            merger.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void scheduleMerge() {
+        if (merging || merger.isShutdown() || segments.size() < mergeFactor) {
+            return;
+        }
+        List<ExplorerSegment> candidates = new ArrayList<>(segments);
+        candidates.sort(Comparator.comparingInt(ExplorerSegment::size));
+        List<ExplorerSegment> inputs = new ArrayList<>();
+        long records = 0;
+        for (ExplorerSegment segment : candidates) {
+            if (inputs.size() == mergeFactor || records + segment.size() > ExplorerSegment.MAX_RECORDS) {
+                break;
+            }
+            inputs.add(segment);
+            records += segment.size();
+        }
+        if (inputs.size() < 2) {
+            return;
+        }
+        merging = true;
+        merger.schedule(() -> merge(inputs), mergeDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void merge(List<ExplorerSegment> inputs) {
+        boolean merged = false;
+        try {
+            long generation = generations.incrementAndGet();
+            ExplorerSegment segment = ExplorerSegment.merge(inputs, segmentFile(generation), generation);
+            synchronized (this) {
+                List<ExplorerSegment> updated = new ArrayList<>(segments);
+                updated.removeAll(inputs);
+                updated.add(segment);
+                updated.sort(Comparator.comparingLong(ExplorerSegment::getGeneration));
+                segments = Collections.unmodifiableList(updated);
+            }
+            merged = true;
+            for (ExplorerSegment input : inputs) {
+                Files.deleteIfExists(input.getFile());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, merged ? "Could not delete merged explorer segments" :
+                    "Explorer segment merge failed", e);
+        } finally {
+            synchronized (this) {
+                merging = false;
+                mergeDelayMillis = merged ? 0 :
+                        Math.min(MAX_MERGE_RETRY_MILLIS, Math.max(MERGE_RETRY_MILLIS, mergeDelayMillis * 2));
+            }
+            scheduleMerge();
+        }
+    }
+
+    private Path segmentFile(long generation) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, generation, SEGMENT_SUFFIX));
+    }
+
+    private class GameBuffer implements PgnListener {
+        private final long[] hashes;
+        private final int[] moves;
+        private int plies;
+        private long previousHash;
+
+        GameBuffer(int maxPlies) {
+            this.hashes = new long[maxPlies];
+            this.moves = new int[maxPlies];
+        }
+
+        @Override
+        public void startGame(Map<String, String> tags, Position start) {
+            plies = 0;
+            previousHash = start.hash();
+        }
+
+        @Override
+        public void onPly(int ply, int move, Position position) {
+            if (plies < hashes.length) {
+                hashes[plies] = previousHash;
+                moves[plies++] = move;
+            }
+            previousHash = position.hash();
+        }
+
+        @Override
+        public void endGame(String result) {
+            addGame(hashes, moves, plies, result);
+            plies = 0;
+        }
+    }
+
+    private static void sort(int[] order, long[] hashes, int[] moves, int low, int high) {
+        while (low < high) {
+            int pivot = order[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(order[i], pivot, hashes, moves) < 0) {
+                    i++;
+                }
+                while (compare(order[j], pivot, hashes, moves) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swap;
+                }
+            }
+            if (j - low < high - i) {
+                sort(order, hashes, moves, low, j);
+                low = i;
+            } else {
+                sort(order, hashes, moves, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private static int compare(int a, int b, long[] hashes, int[] moves) {
+        int result = Long.compare(hashes[a], hashes[b]);
+        return result != 0 ? result : Integer.compare(moves[a], moves[b]);
+    }
+}
@@ -0,0 +1,71 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+public final class FenTokens {
+    public static final String NONE = "-";
+    public static final String WHITE = "w";
+    public static final String BLACK = "b";
+
+    private static final String[] SQUARES = new String[BoardConfiguration.TILES_MAX];
+    private static final String[] CASTLING = new String[16];
+    private static final String[] UCI = new String[1 << 15];
+
+    static {
+        for (int square = 0; square < SQUARES.length; square++) {
+            SQUARES[square] = new String(new char[]{(char) ('a' + (square & 7)), (char) ('8' - (square >> 3))}).intern();
+        }
+        for (int mask = 0; mask < CASTLING.length; mask++) {
+            StringBuilder builder = new StringBuilder(4);
+            if ((mask & FenService.CASTLE_WHITE_KING_SIDE) != 0) {
+                builder.append('K');
+            }
+            if ((mask & FenService.CASTLE_WHITE_QUEEN_SIDE) != 0) {
+                builder.append('Q');
+            }
+            if ((mask & FenService.CASTLE_BLACK_KING_SIDE) != 0) {
+                builder.append('k');
+            }
+            if ((mask & FenService.CASTLE_BLACK_QUEEN_SIDE) != 0) {
+                builder.append('q');
+            }
+            CASTLING[mask] = mask == 0 ? NONE : builder.toString().intern();
+        }
+    }
+
+    private FenTokens() {
+    }
+
+    public static String square(int square) {
+        return square < 0 ? NONE : SQUARES[square];
+    }
+
+    public static String side(boolean whiteToMove) {
+        return whiteToMove ? WHITE : BLACK;
+    }
+
+    public static String castling(int mask) {
+        return CASTLING[mask];
+    }
+
+    public static char file(int square) {
+        return SQUARES[square].charAt(0);
+    }
+
+    public static char rank(int square) {
+        return SQUARES[square].charAt(1);
+    }
+
+    public static String uci(int move) {
+        int key = move & (UCI.length - 1);
+        String uci = UCI[key];
+        if (uci == null) {
+            uci = SQUARES[Move.from(move)] + SQUARES[Move.to(move)];
+            if (Move.promotion(move) != 0) {
+                uci += Character.toLowerCase(PieceCode.toChar(Move.promotion(move)));
+            }
+            UCI[key] = uci;
+        }
+        return uci;
+    }
+}
@@ -3,175 +3,204 @@ package com.chess.spring.game;
 import com.chess.spring.exceptions.ExceptionMessages;
 import com.chess.spring.exceptions.InvalidDataException;
 import com.chess.spring.game.board.Board;
-import com.chess.spring.game.board.BoardBuilder;
-import com.chess.spring.game.board.BoardService;
 import com.chess.spring.game.core.analysers.BoardConfiguration;
-import com.chess.spring.game.pieces.*;
-import com.chess.spring.game.pieces.utils.PlayerColor;
-import com.google.common.primitives.Chars;
-
-import java.util.LinkedList;
-import java.util.List;
+import com.chess.spring.game.pieces.Pawn;
+import com.chess.spring.game.pieces.Piece;
 
 public class FenService {
+    public static final int CASTLE_WHITE_KING_SIDE = 1;
+    public static final int CASTLE_WHITE_QUEEN_SIDE = 2;
+    public static final int CASTLE_BLACK_KING_SIDE = 4;
+    public static final int CASTLE_BLACK_QUEEN_SIDE = 8;
+
     public static String parse(Board board) {
-        return calculateBoardText(board) + " " +
-                calculateCurrentPlayerText(board) + " " +
-                calculateCastleText(board) + " " +
-                calculatePassingField(board) + " " +
-                "0 1";
+        return parse(board, 0, 1);
+    }
+
+    public static String parse(Board board, int halfmoveClock, int fullmoveNumber) {
+        StringBuilder builder = new StringBuilder(90);
+        calculateBoardText(board, builder);
+        return builder.append(' ').append(FenTokens.side(isWhiteToMove(board)))
+                .append(' ').append(FenTokens.castling(castlingMask(board)))
+                .append(' ').append(FenTokens.square(enPassantSquare(board)))
+                .append(' ').append(halfmoveClock)
+                .append(' ').append(fullmoveNumber)
+                .toString();
     }
 
     public static Board parse(String fen) throws InvalidDataException {
-        String[] fenParts = fen.trim().split(" ");
-        BoardBuilder builder = new BoardBuilder();
-        boolean whiteKingSideCastle = whiteKingSideCastle(fenParts[2]);
-        boolean whiteQueenSideCastle = whiteQueenSideCastle(fenParts[2]);
-        boolean blackKingSideCastle = blackKingSideCastle(fenParts[2]);
-        boolean blackQueenSideCastle = blackQueenSideCastle(fenParts[2]);
-        String gameConfiguration = fenParts[0];
-        List<Character> boardTiles = new LinkedList<>(Chars.asList(gameConfiguration
-                .replaceAll("/", "")
-                .replaceAll("8", "--------")
-                .replaceAll("7", "-------")
-                .replaceAll("6", "------")
-                .replaceAll("5", "-----")
-                .replaceAll("4", "----")
-                .replaceAll("3", "---")
-                .replaceAll("2", "--")
-                .replaceAll("1", "-")
-                .toCharArray()));
-        for (int i = 0; i < boardTiles.size(); i++) {
-            switch (boardTiles.get(i)) {
-                case 'r':
-                    builder.setPiece(new Rook(PlayerColor.BLACK, i));
-                    continue;
-                case 'n':
-                    builder.setPiece(new Knight(PlayerColor.BLACK, i));
-                    continue;
-                case 'b':
-                    builder.setPiece(new Bishop(PlayerColor.BLACK, i));
-                    continue;
-                case 'q':
-                    builder.setPiece(new Queen(PlayerColor.BLACK, i));
-                    continue;
-                case 'k':
-                    builder.setPiece(new King(PlayerColor.BLACK, i, blackKingSideCastle, blackQueenSideCastle));
-                    continue;
-                case 'p':
-                    builder.setPiece(new Pawn(PlayerColor.BLACK, i));
-                    continue;
-                case 'R':
-                    builder.setPiece(new Rook(PlayerColor.WHITE, i));
-                    continue;
-                case 'N':
-                    builder.setPiece(new Knight(PlayerColor.WHITE, i));
-                    continue;
-                case 'B':
-                    builder.setPiece(new Bishop(PlayerColor.WHITE, i));
-                    continue;
-                case 'Q':
-                    builder.setPiece(new Queen(PlayerColor.WHITE, i));
-                    continue;
-                case 'K':
-                    builder.setPiece(new King(PlayerColor.WHITE, i, whiteKingSideCastle, whiteQueenSideCastle));
-                    continue;
-                case 'P':
-                    builder.setPiece(new Pawn(PlayerColor.WHITE, i));
-                    continue;
-                case '-':
-                    continue;
-                default:
-                    throw new RuntimeException("Invalid FEN String " + gameConfiguration);
+        Position position = new Position();
+        parse(fen, position);
+        return position.toBoard();
+    }
+
+    public static void parse(String fen, Position position) throws InvalidDataException {
+        int length = fen.length();
+        int i = skipSpaces(fen, 0);
+        position.clear();
+        int square = 0;
+        int file = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8) {
+                    throw new RuntimeException("Invalid FEN String " + fen);
+                }
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                square += c - '0';
+                file += c - '0';
+            } else if (square < BoardConfiguration.TILES_MAX) {
+                position.put(square++, PieceCode.of(c));
+                file++;
+            } else {
+                throw new RuntimeException("Invalid FEN String " + fen);
+            }
+            if (file > 8) {
+                throw new RuntimeException("Invalid FEN String " + fen);
+            }
+        }
+        if (square != BoardConfiguration.TILES_MAX || file != 8) {
+            throw new RuntimeException("Invalid FEN String " + fen);
+        }
+        i = skipSpaces(fen, i);
+        if (i >= length || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b') ||
+                (i + 1 < length && fen.charAt(i + 1) != ' ')) {
+            throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
+        }
+        boolean whiteToMove = fen.charAt(i) == 'w';
+        i = skipSpaces(fen, i + 1);
+        int castling = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                castling |= castleFlag(fen.charAt(i));
+            }
+        }
+        i = skipSpaces(fen, i);
+        int enPassant = -1;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else if (i < length) {
+            if (i + 1 >= length || fen.charAt(i) < 'a' || fen.charAt(i) > 'h' ||
+                    (fen.charAt(i + 1) != '3' && fen.charAt(i + 1) != '6')) {
+                throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
             }
+            enPassant = ('8' - fen.charAt(i + 1)) * 8 + (fen.charAt(i) - 'a');
+            i += 2;
+        }
+        i = skipSpaces(fen, i);
+        int halfmoveClock = 0;
+        if (i < length) {
+            int end = skipDigits(fen, i);
+            halfmoveClock = parseCounter(fen, i, end);
+            i = skipSpaces(fen, end);
+        }
+        int fullmoveNumber = 1;
+        if (i < length) {
+            int end = skipDigits(fen, i);
+            fullmoveNumber = Math.max(1, parseCounter(fen, i, end));
+            i = skipSpaces(fen, end);
+        }
+        if (i < length) {
+            throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
         }
-        builder.setMoveMaker(moveMaker(fenParts[1]));
-        return builder.build();
+        position.setState(whiteToMove, castling, enPassant, halfmoveClock, fullmoveNumber);
     }
 
-    private static PlayerColor moveMaker(String player) throws InvalidDataException {
-        if (player.equals("w")) {
-            return PlayerColor.WHITE;
+    private static int castleFlag(char c) throws InvalidDataException {
+        switch (c) {
+            case 'K':
+                return CASTLE_WHITE_KING_SIDE;
+            case 'Q':
+                return CASTLE_WHITE_QUEEN_SIDE;
+            case 'k':
+                return CASTLE_BLACK_KING_SIDE;
+            case 'q':
+                return CASTLE_BLACK_QUEEN_SIDE;
+            default:
+                throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
         }
-        if (player.equals("b")) {
-            return PlayerColor.BLACK;
+    }
+
+    private static int parseCounter(String fen, int start, int end) throws InvalidDataException {
+        if (end == start || end - start > 6 || (end < fen.length() && fen.charAt(end) != ' ')) {
+            throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
         }
-        throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (fen.charAt(i) - '0');
+        }
+        return value;
     }
 
-    private static boolean whiteKingSideCastle(String fenCastleString) {
-        return fenCastleString.contains("K");
+    private static int skipSpaces(String fen, int i) {
+        while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+            i++;
+        }
+        return i;
     }
 
-    private static boolean whiteQueenSideCastle(String fenCastleString) {
-        return fenCastleString.contains("Q");
+    private static int skipDigits(String fen, int i) {
+        while (i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
     }
 
-    private static boolean blackKingSideCastle(String fenCastleString) {
-        return fenCastleString.contains("k");
+    private static void calculateBoardText(Board board, StringBuilder builder) {
+        int empty = 0;
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            Piece piece = board.getPiece(i);
+            if (piece == null) {
+                empty++;
+            } else {
+                if (empty > 0) {
+                    builder.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                builder.append(PieceCode.toChar(PieceCode.of(piece)));
+            }
+            if ((i & 7) == 7) {
+                if (empty > 0) {
+                    builder.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                if (i < BoardConfiguration.TILES_MAX - 1) {
+                    builder.append('/');
+                }
+            }
+        }
     }
 
-    private static boolean blackQueenSideCastle(String fenCastleString) {
-        return fenCastleString.contains("q");
+    static boolean isWhiteToMove(Board board) {
+        return Character.toLowerCase(board.getCurrentPlayer().toString().charAt(0)) == 'w';
     }
 
-    private static String calculateCastleText(Board board) {
-        StringBuilder builder = new StringBuilder();
+    static int castlingMask(Board board) {
+        int mask = 0;
         if (board.whitePlayer().isKingSideCastleCapable()) {
-            builder.append("K");
+            mask |= CASTLE_WHITE_KING_SIDE;
         }
         if (board.whitePlayer().isQueenSideCastleCapable()) {
-            builder.append("Q");
+            mask |= CASTLE_WHITE_QUEEN_SIDE;
         }
         if (board.blackPlayer().isKingSideCastleCapable()) {
-            builder.append("k");
+            mask |= CASTLE_BLACK_KING_SIDE;
         }
         if (board.blackPlayer().isQueenSideCastleCapable()) {
-            builder.append("q");
+            mask |= CASTLE_BLACK_QUEEN_SIDE;
         }
-        String result = builder.toString();
-
-        return result.isEmpty() ? "-" : result;
+        return mask;
     }
 
-    private static String calculatePassingField(Board board) {
+    static int enPassantSquare(Board board) {
         Pawn enPassantPawn = board.getPassingAttack();
-        if (enPassantPawn != null) {
-            return BoardService.getPositionAtCoordinate(enPassantPawn.getPosition() +
-                    (8) * enPassantPawn.getPieceAllegiance().getOppositeDirection());
+        if (enPassantPawn == null) {
+            return -1;
         }
-        return "-";
-    }
-
-    private static String calculateBoardText(Board board) {
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
-            String tileText = board.getPiece(i) == null ? "-" :
-                    board.getPiece(i).getPieceAllegiance().isWhite() ? board.getPiece(i).toString() :
-                            board.getPiece(i).toString().toLowerCase();
-            builder.append(tileText);
-        }
-        builder.insert(8, "/");
-        builder.insert(17, "/");
-        builder.insert(26, "/");
-        builder.insert(35, "/");
-        builder.insert(44, "/");
-        builder.insert(53, "/");
-        builder.insert(62, "/");
-        return builder.toString()
-                .replaceAll("--------", "8")
-                .replaceAll("-------", "7")
-                .replaceAll("------", "6")
-                .replaceAll("-----", "5")
-                .replaceAll("----", "4")
-                .replaceAll("---", "3")
-                .replaceAll("--", "2")
-                .replaceAll("-", "1");
-    }
-
-    private static String calculateCurrentPlayerText(Board board) {
-        return board.getCurrentPlayer().toString().substring(0, 1).toLowerCase();
+        return enPassantPawn.getPosition() + (8) * enPassantPawn.getPieceAllegiance().getOppositeDirection();
     }
 
-
 }
@@ -0,0 +1,231 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.ExceptionMessages;
+import com.chess.spring.exceptions.InvalidDataException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class GameArchiveCodec {
+    public static final int DEFAULT_BLOCK_PLIES = 64;
+
+    private static final int MAGIC = 0x47415243;
+    private static final int VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = PositionCodec.BYTES + 8;
+
+    private GameArchiveCodec() {
+    }
+
+    public static byte[] encodeFens(List<String> fens, int blockPlies, boolean compress) throws InvalidDataException {
+        if (fens.isEmpty()) {
+            throw new IllegalArgumentException("Game has no positions");
+        }
+        Position position = Position.fromFen(fens.get(0));
+        Position start = new Position();
+        start.copyFrom(position);
+        Position target = new Position();
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[fens.size() - 1];
+        for (int ply = 1; ply < fens.size(); ply++) {
+            target.loadFen(fens.get(ply));
+            int count = MoveGenerator.legalMoves(position, legal);
+            int found = Move.NONE;
+            for (int i = 0; i < count && found == Move.NONE; i++) {
+                position.makeMove(legal[i]);
+                if (position.isWhiteToMove() == target.isWhiteToMove() &&
+                        Arrays.equals(position.squares(), target.squares())) {
+                    found = legal[i];
+                }
+                position.unmakeMove(legal[i]);
+            }
+            if (found == Move.NONE) {
+                throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
+            }
+            moves[ply - 1] = found;
+            position.makeMove(found);
+        }
+        return encode(start, moves, moves.length, blockPlies, compress);
+    }
+
+    public static byte[] encode(Position start, int[] moves, int plies, int blockPlies, boolean compress) {
+        if (blockPlies <= 0 || blockPlies > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid block size: " + blockPlies);
+        }
+        int blocks = Math.max(1, (plies + blockPlies - 1) / blockPlies);
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_BYTES);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        Position position = new Position();
+        position.copyFrom(start);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        byte[] snapshot = new byte[PositionCodec.BYTES];
+        byte[] indices = new byte[blockPlies];
+        Deflater deflater = compress ? new Deflater(Deflater.BEST_COMPRESSION) : null;
+        try {
+            for (int block = 0; block < blocks; block++) {
+                PositionCodec.encode(position, snapshot, 0);
+                int first = block * blockPlies;
+                int length = Math.min(blockPlies, plies - first);
+                for (int i = 0; i < length; i++) {
+                    int move = moves[first + i];
+                    int count = sortedLegalMoves(position, legal);
+                    int choice = Arrays.binarySearch(legal, 0, count, move);
+                    if (choice < 0) {
+                        throw new IllegalArgumentException("Illegal move " + Move.toUci(move) + " at ply " + (first + i));
+                    }
+                    indices[i] = (byte) choice;
+                    position.makeMove(move);
+                }
+                byte[] payload = compress ? deflate(deflater, indices, length) : null;
+                if (payload == null || payload.length >= length) {
+                    payload = Arrays.copyOf(indices, length);
+                }
+                index.put(snapshot).putInt(data.size()).putInt(payload.length);
+                data.write(payload, 0, payload.length);
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+        ByteBuffer archive = ByteBuffer.allocate(HEADER_BYTES + index.capacity() + data.size());
+        archive.putInt(MAGIC).put((byte) VERSION).put((byte) (compress ? FLAG_DEFLATE : 0))
+                .putShort((short) blockPlies).putInt(plies).putInt(blocks);
+        archive.put(index.array()).put(data.toByteArray());
+        return archive.array();
+    }
+
+    public static int plyCount(byte[] archive) {
+        return header(archive).getInt(8);
+    }
+
+    public static void decode(byte[] archive, int ply, Position out) {
+        ByteBuffer header = header(archive);
+        int blockPlies = header.getShort(6) & 0xFFFF;
+        int plies = header.getInt(8);
+        if (ply < 0 || ply > plies) {
+            throw new IndexOutOfBoundsException("Ply " + ply + " outside 0.." + plies);
+        }
+        int block = Math.min(ply / blockPlies, header.getInt(12) - 1);
+        PositionCodec.decode(archive, HEADER_BYTES + block * INDEX_ENTRY_BYTES, out);
+        int replay = ply - block * blockPlies;
+        if (replay > 0) {
+            replay(out, blockIndices(archive, header, block), replay, block * blockPlies, null);
+        }
+    }
+
+    public static String fen(byte[] archive, int ply) {
+        Position position = new Position();
+        decode(archive, ply, position);
+        return position.toFen();
+    }
+
+    public static List<String> fens(byte[] archive) {
+        ByteBuffer header = header(archive);
+        int blockPlies = header.getShort(6) & 0xFFFF;
+        int plies = header.getInt(8);
+        List<String> fens = new ArrayList<>(plies + 1);
+        Position position = new Position();
+        PositionCodec.decode(archive, HEADER_BYTES, position);
+        fens.add(position.toFen());
+        for (int block = 0; block * blockPlies < plies; block++) {
+            replay(position, blockIndices(archive, header, block), Math.min(blockPlies, plies - block * blockPlies),
+                    block * blockPlies, fens);
+        }
+        return fens;
+    }
+
+    private static void replay(Position position, byte[] indices, int plies, int firstPly, List<String> fens) {
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        for (int i = 0; i < plies; i++) {
+            int count = sortedLegalMoves(position, legal);
+            int choice = indices[i] & 0xFF;
+            if (choice >= count) {
+                throw new IllegalStateException("Corrupt archive at ply " + (firstPly + i));
+            }
+            position.makeMove(legal[choice]);
+            if (fens != null) {
+                fens.add(position.toFen());
+            }
+        }
+    }
+
+    private static byte[] blockIndices(byte[] archive, ByteBuffer header, int block) {
+        int blocks = header.getInt(12);
+        int entry = HEADER_BYTES + block * INDEX_ENTRY_BYTES;
+        int offset = HEADER_BYTES + blocks * INDEX_ENTRY_BYTES + header.getInt(entry + PositionCodec.BYTES);
+        int length = header.getInt(entry + PositionCodec.BYTES + 4);
+        int blockPlies = header.getShort(6) & 0xFFFF;
+        int plies = Math.min(blockPlies, header.getInt(8) - block * blockPlies);
+        if (length < 0 || offset < 0 || offset > archive.length - length) {
+            throw new IllegalStateException("Corrupt archive block " + block);
+        }
+        if ((header.get(5) & FLAG_DEFLATE) != 0 && length < plies) {
+            return inflate(archive, offset, length, plies);
+        }
+        if (length != plies) {
+            throw new IllegalStateException("Corrupt archive block " + block);
+        }
+        return Arrays.copyOfRange(archive, offset, offset + length);
+    }
+
+    private static int sortedLegalMoves(Position position, int[] legal) {
+        int count = MoveGenerator.legalMoves(position, legal);
+        Arrays.sort(legal, 0, count);
+        return count;
+    }
+
+    private static ByteBuffer header(byte[] archive) {
+        ByteBuffer buffer = ByteBuffer.wrap(archive);
+        if (archive.length < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            throw new IllegalArgumentException("Invalid game archive");
+        }
+        return buffer;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] input, int length) {
+        deflater.reset();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        byte[] buffer = new byte[length + 64];
+        int size = 0;
+        while (!deflater.finished()) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            size += deflater.deflate(buffer, size, buffer.length - size);
+        }
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private static byte[] inflate(byte[] archive, int offset, int length, int plies) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(archive, offset, length);
+            byte[] output = new byte[plies];
+            int size = 0;
+            while (!inflater.finished() && size < output.length) {
+                int read = inflater.inflate(output, size, output.length - size);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += read;
+            }
+            if (size != plies || !inflater.finished()) {
+                throw new IllegalStateException("Corrupt archive block");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class GameBroadcast {
+    public static final byte MOVE = 1;
+    public static final byte KEYFRAME = 2;
+
+    private static final int SLOT_BYTES = 128;
+    private static final int MAX_PAYLOAD = SLOT_BYTES - 2;
+    private static final long EMPTY = -1;
+
+    private final byte[] slots;
+    private final AtomicLongArray stamps;
+    private final int capacity;
+    private final int mask;
+    private final int keyframeInterval;
+    private final AtomicLong cursor = new AtomicLong();
+    private final LongAdder skips = new LongAdder();
+    private volatile long lastKeyframe = EMPTY;
+    private int movesSinceKeyframe;
+
+    public GameBroadcast(int capacity, int keyframeInterval) {
+        if (Integer.bitCount(capacity) != 1 || keyframeInterval <= 0 || keyframeInterval > capacity / 2) {
+            throw new IllegalArgumentException("Invalid broadcast configuration: " + capacity + "/" + keyframeInterval);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.keyframeInterval = keyframeInterval;
+        this.slots = new byte[capacity * SLOT_BYTES];
+        this.stamps = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            stamps.set(i, EMPTY);
+        }
+    }
+
+    public interface Handler {
+        void onKeyframe(long sequence, String fen);
+
+        void onMove(long sequence, int move);
+    }
+
+    public long publish(int move, Board after) {
+        long sequence = publishMove(move);
+        if (movesSinceKeyframe >= keyframeInterval) {
+            publishKeyframe(FenService.parse(after));
+        }
+        return sequence;
+    }
+
+    public long publishMove(int move) {
+        movesSinceKeyframe++;
+        return write(MOVE, move);
+    }
+
+    public long publishKeyframe(String fen) {
+        byte[] payload = fen.getBytes(StandardCharsets.US_ASCII);
+        if (payload.length > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Invalid FEN String " + fen);
+        }
+        long sequence = write(KEYFRAME, payload);
+        movesSinceKeyframe = 0;
+        lastKeyframe = sequence;
+        return sequence;
+    }
+
+    public Subscriber subscribe() {
+        long keyframe = lastKeyframe;
+        return new Subscriber(keyframe == EMPTY ? cursor.get() : keyframe);
+    }
+
+    public long getPublishedCount() {
+        return cursor.get();
+    }
+
+    public long getSkipCount() {
+        return skips.sum();
+    }
+
+    private long write(byte type, int move) {
+        long sequence = cursor.get();
+        int slot = (int) sequence & mask;
+        int offset = claim(slot);
+        slots[offset] = type;
+        slots[offset + 1] = 2;
+        slots[offset + 2] = (byte) (move >>> 8);
+        slots[offset + 3] = (byte) move;
+        return commit(slot, sequence);
+    }
+
+    private long write(byte type, byte[] payload) {
+        long sequence = cursor.get();
+        int slot = (int) sequence & mask;
+        int offset = claim(slot);
+        slots[offset] = type;
+        slots[offset + 1] = (byte) payload.length;
+        System.arraycopy(payload, 0, slots, offset + 2, payload.length);
+        return commit(slot, sequence);
+    }
+
+    private int claim(int slot) {
+        stamps.setPlain(slot, EMPTY);
+        VarHandle.releaseFence();
+        return slot * SLOT_BYTES;
+    }
+
+    private long commit(int slot, long sequence) {
+        stamps.setRelease(slot, sequence);
+        cursor.setRelease(sequence + 1);
+        return sequence;
+    }
+
+    public class Subscriber {
+        private final byte[] scratch = new byte[SLOT_BYTES];
+        private long next;
+        private long skipped;
+
+        Subscriber(long start) {
+            this.next = start;
+        }
+
+        public int poll(Handler handler, int limit) {
+            int delivered = 0;
+            while (delivered < limit) {
+                long published = cursor.get();
+                if (next >= published) {
+                    break;
+                }
+                if (published - next > capacity) {
+                    skipToKeyframe();
+                    continue;
+                }
+                int slot = (int) next & mask;
+                long before = stamps.get(slot);
+                System.arraycopy(slots, slot * SLOT_BYTES, scratch, 0, SLOT_BYTES);
+                VarHandle.acquireFence();
+                if (before != next || stamps.get(slot) != next) {
+                    skipToKeyframe();
+                    continue;
+                }
+                if (scratch[0] == KEYFRAME) {
+                    handler.onKeyframe(next, new String(scratch, 2, scratch[1], StandardCharsets.US_ASCII));
+                } else {
+                    handler.onMove(next, ((scratch[2] & 0xFF) << 8) | (scratch[3] & 0xFF));
+                }
+                next++;
+                delivered++;
+            }
+            return delivered;
+        }
+
+        public long getLag() {
+            return cursor.get() - next;
+        }
+
+        public boolean isLagging() {
+            return getLag() > capacity / 2;
+        }
+
+        public long getSkipCount() {
+            return skipped;
+        }
+
+        public long getNextSequence() {
+            return next;
+        }
+
+        private void skipToKeyframe() {
+            skipped++;
+            skips.increment();
+            long keyframe = lastKeyframe;
+            next = keyframe > next ? keyframe : Math.max(next, cursor.get() - capacity / 2);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GameEventStore implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAGIC = 0x47455653;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int DEFAULT_SEGMENT_BYTES = 16 << 20;
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+    private static final int MAX_RECORD_BYTES = 1 + 10 + 10 + 5 + PositionCodec.BYTES;
+    private static final byte END = 0;
+    private static final byte MOVE = 1;
+    private static final byte SNAPSHOT = 2;
+    private static final byte FINISH = 3;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int snapshotInterval;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<Long, GameCursor> games = new HashMap<>();
+    private final byte[] record = new byte[MAX_RECORD_BYTES];
+    private final byte[] encoded = new byte[PositionCodec.BYTES];
+    private int writePosition;
+    private long bytesWritten;
+
+    public GameEventStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public GameEventStore(Path directory, int segmentBytes, int snapshotInterval) throws IOException {
+        if (segmentBytes < HEADER_BYTES + MAX_RECORD_BYTES + 1 || snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Invalid event store configuration: " + segmentBytes + "/" + snapshotInterval);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.snapshotInterval = snapshotInterval;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size(); i++) {
+            if (!files.get(i).equals(segmentFile(i))) {
+                throw new IOException("Missing event segment " + segmentFile(i));
+            }
+            segments.add(map(files.get(i), false));
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentFile(0), true));
+        }
+        recover();
+    }
+
+    public synchronized void start(long gameId, Board board) {
+        start(gameId, Position.of(board));
+    }
+
+    public synchronized void start(long gameId, Position position) {
+        GameCursor cursor = new GameCursor();
+        games.put(gameId, cursor);
+        writeSnapshot(gameId, cursor, position);
+    }
+
+    public synchronized void append(long gameId, int move, Board after) {
+        GameCursor cursor = cursor(gameId);
+        if ((cursor.ply + 1) % snapshotInterval == 0) {
+            cursor.ply++;
+            writeSnapshot(gameId, cursor, Position.of(after));
+        } else {
+            writeMove(gameId, cursor, move);
+        }
+    }
+
+    public synchronized void append(long gameId, int move, Position after) {
+        GameCursor cursor = cursor(gameId);
+        if ((cursor.ply + 1) % snapshotInterval == 0) {
+            cursor.ply++;
+            writeSnapshot(gameId, cursor, after);
+        } else {
+            writeMove(gameId, cursor, move);
+        }
+    }
+
+    public synchronized Position load(long gameId) {
+        GameCursor cursor = games.get(gameId);
+        if (cursor == null) {
+            return null;
+        }
+        RecordHeader header = new RecordHeader();
+        int[] moves = new int[snapshotInterval];
+        int count = 0;
+        header.read(cursor.lastOffset);
+        while (header.type == MOVE) {
+            if (count == moves.length) {
+                moves = Arrays.copyOf(moves, count * 2);
+            }
+            moves[count++] = ((header.segment.get(header.payload) & 0xFF) << 8) |
+                    (header.segment.get(header.payload + 1) & 0xFF);
+            header.read(header.previous);
+        }
+        header.segment.duplicate().position(skipVarint(header.segment, header.payload)).get(encoded);
+        Position result = new Position();
+        PositionCodec.decode(encoded, 0, result);
+        for (int i = count - 1; i >= 0; i--) {
+            result.makeMove(moves[i]);
+        }
+        return result;
+    }
+
+    public Board loadBoard(long gameId) {
+        Position position = load(gameId);
+        return position == null ? null : position.toBoard();
+    }
+
+    public String loadFen(long gameId) {
+        Position position = load(gameId);
+        return position == null ? null : position.toFen();
+    }
+
+    public synchronized int plyCount(long gameId) {
+        GameCursor cursor = games.get(gameId);
+        return cursor == null ? -1 : cursor.ply;
+    }
+
+    public synchronized void finish(long gameId) {
+        GameCursor cursor = cursor(gameId);
+        commit(cursor, writeHeader(FINISH, gameId, cursor));
+        games.remove(gameId);
+    }
+
+    public synchronized int getGameCount() {
+        return games.size();
+    }
+
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        segments.clear();
+        games.clear();
+    }
+
+    private GameCursor cursor(long gameId) {
+        GameCursor cursor = games.get(gameId);
+        if (cursor == null) {
+            throw new IllegalStateException("Unknown game " + gameId);
+        }
+        return cursor;
+    }
+
+    private void writeMove(long gameId, GameCursor cursor, int move) {
+        int length = writeHeader(MOVE, gameId, cursor);
+        record[length++] = (byte) (move >>> 8);
+        record[length++] = (byte) move;
+        cursor.ply++;
+        commit(cursor, length);
+    }
+
+    private void writeSnapshot(long gameId, GameCursor cursor, Position position) {
+        int length = writeHeader(SNAPSHOT, gameId, cursor);
+        length = writeVarint(record, length, cursor.ply);
+        PositionCodec.encode(position, record, length);
+        commit(cursor, length + PositionCodec.BYTES);
+    }
+
+    private int writeHeader(byte type, long gameId, GameCursor cursor) {
+        if (writePosition + MAX_RECORD_BYTES >= segmentBytes) {
+            try {
+                segments.add(map(segmentFile(segments.size()), true));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to create event segment", e);
+            }
+            writePosition = HEADER_BYTES;
+        }
+        long offset = globalOffset();
+        record[0] = type;
+        int length = writeVarint(record, 1, gameId);
+        return writeVarint(record, length, cursor.lastOffset < 0 ? 0 : offset - cursor.lastOffset);
+    }
+
+    private void commit(GameCursor cursor, int length) {
+        MappedByteBuffer segment = segments.get(segments.size() - 1);
+        segment.duplicate().position(writePosition + 1).put(record, 1, length - 1);
+        segment.put(writePosition, record[0]);
+        cursor.lastOffset = globalOffset();
+        writePosition += length;
+        bytesWritten += length;
+    }
+
+    private void recover() {
+        RecordHeader header = new RecordHeader();
+        for (int index = 0; index < segments.size(); index++) {
+            MappedByteBuffer segment = segments.get(index);
+            int position = HEADER_BYTES;
+            while (position < segmentBytes && segment.get(position) != END) {
+                long offset = (long) index * segmentBytes + position;
+                header.read(offset);
+                if (header.type == FINISH) {
+                    games.remove(header.gameId);
+                    position = header.payload;
+                    continue;
+                }
+                GameCursor cursor = games.computeIfAbsent(header.gameId, id -> new GameCursor());
+                cursor.lastOffset = offset;
+                if (header.type == MOVE) {
+                    cursor.ply++;
+                    position = header.payload + 2;
+                } else {
+                    cursor.ply = (int) readVarint(segment, header.payload);
+                    position = skipVarint(segment, header.payload) + PositionCodec.BYTES;
+                }
+            }
+            writePosition = position;
+        }
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        return segments.get((int) (offset / segmentBytes));
+    }
+
+    private static long readVarint(MappedByteBuffer segment, int position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = segment.get(position++);
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int skipVarint(MappedByteBuffer segment, int position) {
+        while (segment.get(position++) < 0) {
+            continue;
+        }
+        return position;
+    }
+
+    private static int writeVarint(byte[] out, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[offset++] = (byte) value;
+        return offset;
+    }
+
+    private long globalOffset() {
+        return (long) (segments.size() - 1) * segmentBytes + writePosition;
+    }
+
+    private Path segmentFile(int index) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private MappedByteBuffer map(Path file, boolean create) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (!create && channel.size() != segmentBytes) {
+                throw new IOException("Event segment size mismatch " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (create) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(8, 0);
+            } else if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Invalid event segment " + file);
+            }
+            return buffer;
+        }
+    }
+
+    private static class GameCursor {
+        private long lastOffset = -1;
+        private int ply;
+    }
+
+    private class RecordHeader {
+        private MappedByteBuffer segment;
+        private byte type;
+        private long gameId;
+        private long previous;
+        private int payload;
+
+        void read(long offset) {
+            segment = segment(offset);
+            int position = (int) (offset % segmentBytes);
+            type = segment.get(position++);
+            gameId = readVarint(segment, position);
+            position = skipVarint(segment, position);
+            long delta = readVarint(segment, position);
+            previous = delta == 0 ? -1 : offset - delta;
+            payload = skipVarint(segment, position);
+        }
+    }
+}
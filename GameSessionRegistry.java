@@ -0,0 +1,166 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+public class GameSessionRegistry {
+    private final Shard[] shards;
+    private final int shardMask;
+
+    public GameSessionRegistry() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    public GameSessionRegistry(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        int size = Integer.highestOneBit(shardCount * 2 - 1);
+        this.shards = new Shard[size];
+        this.shardMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    public boolean register(long gameId, Board board) {
+        Shard shard = shard(gameId);
+        shard.acquire();
+        try {
+            return shard.sessions.putIfAbsent(gameId, new GameSnapshot(board, 0)) == null;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code change} while holding the lock of the game's shard, so it also blocks updates to every
+     * other game in that shard. Keep it to the board transition itself and do not touch other games from it.
+     */
+    public GameSnapshot update(long gameId, UnaryOperator<Board> change) {
+        Shard shard = shard(gameId);
+        shard.acquire();
+        try {
+            GameSnapshot current = shard.sessions.get(gameId);
+            if (current == null) {
+                throw new IllegalStateException("Unknown game " + gameId);
+            }
+            GameSnapshot next = new GameSnapshot(change.apply(current.getBoard()), current.getVersion() + 1);
+            shard.sessions.put(gameId, next);
+            shard.updates.increment();
+            return next;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public GameSnapshot remove(long gameId) {
+        Shard shard = shard(gameId);
+        shard.acquire();
+        try {
+            return shard.sessions.remove(gameId);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public GameSnapshot snapshot(long gameId) {
+        return shard(gameId).sessions.get(gameId);
+    }
+
+    public Board board(long gameId) {
+        GameSnapshot snapshot = snapshot(gameId);
+        return snapshot == null ? null : snapshot.getBoard();
+    }
+
+    public String fen(long gameId) {
+        GameSnapshot snapshot = snapshot(gameId);
+        return snapshot == null ? null : snapshot.getFen();
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.sessions.size();
+        }
+        return size;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public long getUpdateCount() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.updates.sum();
+        }
+        return total;
+    }
+
+    public long getLockAcquisitionCount() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.acquisitions.sum();
+        }
+        return total;
+    }
+
+    public long getContendedCount() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.contended.sum();
+        }
+        return total;
+    }
+
+    public double getContentionRate() {
+        long acquisitions = getLockAcquisitionCount();
+        return acquisitions == 0 ? 0 : (double) getContendedCount() / acquisitions;
+    }
+
+    public long getTotalWaitNanos() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.waitNanos.sum();
+        }
+        return total;
+    }
+
+    public long[] getContendedCountPerShard() {
+        long[] counts = new long[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            counts[i] = shards[i].contended.sum();
+        }
+        return counts;
+    }
+
+    private Shard shard(long gameId) {
+        long hash = gameId * 0x9E3779B97F4A7C15L;
+        return shards[(int) (hash >>> 32) & shardMask];
+    }
+
+    private static class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentHashMap<Long, GameSnapshot> sessions = new ConcurrentHashMap<>();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder updates = new LongAdder();
+
+        void acquire() {
+            acquisitions.increment();
+            if (lock.tryLock()) {
+                return;
+            }
+            contended.increment();
+            long start = System.nanoTime();
+            lock.lock();
+            waitNanos.add(System.nanoTime() - start);
+        }
+    }
+}
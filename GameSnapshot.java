@@ -0,0 +1,41 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+public class GameSnapshot {
+    private final Board board;
+    private final long version;
+    private final long lastMoveId;
+    private volatile String fen;
+
+    GameSnapshot(Board board, long version) {
+        this(board, version, 0);
+    }
+
+    GameSnapshot(Board board, long version, long lastMoveId) {
+        this.board = board;
+        this.version = version;
+        this.lastMoveId = lastMoveId;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getLastMoveId() {
+        return lastMoveId;
+    }
+
+    public String getFen() {
+        String result = fen;
+        if (result == null) {
+            result = FenService.parse(board);
+            fen = result;
+        }
+        return result;
+    }
+}
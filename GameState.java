@@ -0,0 +1,105 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+public class GameState {
+    public static final long ANY_VERSION = -1;
+
+    private final AtomicReference<GameSnapshot> current;
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    public GameState(Board board) {
+        this.current = new AtomicReference<>(new GameSnapshot(board, 0, 0));
+    }
+
+    public enum Status {
+        APPLIED,
+        DUPLICATE,
+        CONFLICT
+    }
+
+    public GameSnapshot snapshot() {
+        return current.get();
+    }
+
+    public Board board() {
+        return current.get().getBoard();
+    }
+
+    public String fen() {
+        return current.get().getFen();
+    }
+
+    public Result apply(long moveId, UnaryOperator<Board> move) {
+        return apply(moveId, ANY_VERSION, move);
+    }
+
+    public Result apply(long moveId, long expectedVersion, UnaryOperator<Board> move) {
+        if (moveId <= 0) {
+            throw new IllegalArgumentException("Move id must be positive: " + moveId);
+        }
+        while (true) {
+            GameSnapshot snapshot = current.get();
+            if (moveId <= snapshot.getLastMoveId()) {
+                duplicates.increment();
+                return new Result(Status.DUPLICATE, snapshot);
+            }
+            if (expectedVersion != ANY_VERSION && expectedVersion != snapshot.getVersion()) {
+                conflicts.increment();
+                return new Result(Status.CONFLICT, snapshot);
+            }
+            Board board = move.apply(snapshot.getBoard());
+            GameSnapshot next = new GameSnapshot(board, snapshot.getVersion() + 1, moveId);
+            if (current.compareAndSet(snapshot, next)) {
+                applied.increment();
+                return new Result(Status.APPLIED, next);
+            }
+            retries.increment();
+        }
+    }
+
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public static class Result {
+        private final Status status;
+        private final GameSnapshot snapshot;
+
+        Result(Status status, GameSnapshot snapshot) {
+            this.status = status;
+            this.snapshot = snapshot;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public GameSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public boolean isApplied() {
+            return status == Status.APPLIED;
+        }
+    }
+}
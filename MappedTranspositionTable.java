@@ -0,0 +1,165 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+public class MappedTranspositionTable implements AutoCloseable {
+    public static final long NOT_FOUND = 0;
+    public static final int BOUND_EXACT = 0;
+    public static final int BOUND_LOWER = 1;
+    public static final int BOUND_UPPER = 2;
+
+    private static final long MAGIC = 0x43485354544D4150L;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 16;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int SLOTS_OFFSET = 12;
+    private static final int CLEAN_OFFSET = 16;
+    private static final int CHECKSUM_OFFSET = 24;
+    private static final long OCCUPIED = 1L << 63;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotMask;
+    private final boolean reused;
+    private int generation;
+
+    private MappedTranspositionTable(FileChannel channel, MappedByteBuffer buffer, int slots, boolean reused) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slotMask = slots - 1;
+        this.reused = reused;
+    }
+
+    public static MappedTranspositionTable open(Path file, int slots) throws IOException {
+        if (Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slots);
+        }
+        long size = HEADER_BYTES + (long) slots * SLOT_BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Table too large for a single mapping: " + slots);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean existing = channel.size() == size;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        boolean reused = existing && isValid(buffer, slots);
+        if (!reused) {
+            clear(buffer, size);
+            buffer.putLong(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(SLOTS_OFFSET, slots);
+        }
+        buffer.putInt(CLEAN_OFFSET, 0);
+        buffer.force();
+        return new MappedTranspositionTable(channel, buffer, slots, reused);
+    }
+
+    public boolean isReused() {
+        return reused;
+    }
+
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public long probe(String fen) throws InvalidDataException {
+        return probe(ZobristHash.hash(fen));
+    }
+
+    public long probe(long key) {
+        int offset = slotOffset(key);
+        long data = buffer.getLong(offset + 8);
+        if ((buffer.getLong(offset) ^ data) != key || (data & OCCUPIED) == 0) {
+            return NOT_FOUND;
+        }
+        return data;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int offset = slotOffset(key);
+        long existing = buffer.getLong(offset + 8);
+        boolean sameKey = (buffer.getLong(offset) ^ existing) == key;
+        if ((existing & OCCUPIED) != 0 && generation(existing) == generation &&
+                depth(existing) > depth && !sameKey) {
+            return;
+        }
+        long data = OCCUPIED |
+                ((long) generation << 48) |
+                ((long) (bound & 0xFF) << 40) |
+                ((long) (depth & 0xFF) << 32) |
+                ((long) (score & 0xFFFF) << 16) |
+                (move & 0xFFFF);
+        buffer.putLong(offset, key ^ data);
+        buffer.putLong(offset + 8, data);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 32) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 48) & 0xFF);
+    }
+
+    public void flush() {
+        buffer.putLong(CHECKSUM_OFFSET, checksum(buffer, slotMask + 1));
+        buffer.putInt(CLEAN_OFFSET, 1);
+        buffer.force();
+        buffer.putInt(CLEAN_OFFSET, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.putLong(CHECKSUM_OFFSET, checksum(buffer, slotMask + 1));
+        buffer.putInt(CLEAN_OFFSET, 1);
+        buffer.force();
+        channel.close();
+    }
+
+    private int slotOffset(long key) {
+        return HEADER_BYTES + ((int) key & slotMask) * SLOT_BYTES;
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int slots) {
+        return buffer.getLong(MAGIC_OFFSET) == MAGIC &&
+                buffer.getInt(VERSION_OFFSET) == VERSION &&
+                buffer.getInt(SLOTS_OFFSET) == slots &&
+                buffer.getInt(CLEAN_OFFSET) == 1 &&
+                buffer.getLong(CHECKSUM_OFFSET) == checksum(buffer, slots);
+    }
+
+    private static long checksum(MappedByteBuffer buffer, int slots) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES).limit(HEADER_BYTES + slots * SLOT_BYTES));
+        return crc.getValue();
+    }
+
+    private static void clear(MappedByteBuffer buffer, long size) {
+        for (int offset = 0; offset + 8 <= size; offset += 8) {
+            buffer.putLong(offset, 0);
+        }
+    }
+}
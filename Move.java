@@ -0,0 +1,32 @@
+package com.chess.spring.game;
+
+public final class Move {
+    public static final int NONE = 0;
+
+    private Move() {
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, int promotion) {
+        return from | (to << 6) | (promotion << 12);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static String toUci(int move) {
+        return FenTokens.uci(move);
+    }
+}
@@ -0,0 +1,255 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.util.Arrays;
+
+public final class MoveGenerator {
+    public static final int MAX_MOVES = 256;
+
+    private static final int[][] KNIGHT_TARGETS = new int[BoardConfiguration.TILES_MAX][];
+    private static final int[][] KING_TARGETS = new int[BoardConfiguration.TILES_MAX][];
+    private static final int[][][] RAYS = new int[BoardConfiguration.TILES_MAX][8][];
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}, {-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    private static final int[] PROMOTIONS = {PieceCode.QUEEN, PieceCode.ROOK, PieceCode.BISHOP, PieceCode.KNIGHT};
+
+    static {
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            KNIGHT_TARGETS[square] = targets(square, KNIGHT_STEPS);
+            KING_TARGETS[square] = targets(square, DIRECTIONS);
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int[] ray = new int[7];
+                int length = 0;
+                int row = square / 8 + DIRECTIONS[direction][0];
+                int file = square % 8 + DIRECTIONS[direction][1];
+                while (row >= 0 && row < 8 && file >= 0 && file < 8) {
+                    ray[length++] = row * 8 + file;
+                    row += DIRECTIONS[direction][0];
+                    file += DIRECTIONS[direction][1];
+                }
+                RAYS[square][direction] = Arrays.copyOf(ray, length);
+            }
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    public static int legalMoves(Position position, int[] moves) {
+        int count = pseudoLegalMoves(position, moves);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLegal(position, moves[i])) {
+                moves[legal++] = moves[i];
+            }
+        }
+        return legal;
+    }
+
+    public static boolean isLegal(Position position, int move) {
+        boolean white = position.isWhiteToMove();
+        position.makeMove(move);
+        boolean legal = !isAttacked(position, position.kingSquare(white), !white);
+        position.unmakeMove(move);
+        return legal;
+    }
+
+    public static boolean hasLegalMove(Position position, int[] scratch) {
+        return legalMoves(position, scratch) > 0;
+    }
+
+    public static boolean isInCheck(Position position) {
+        boolean white = position.isWhiteToMove();
+        int king = position.kingSquare(white);
+        return king >= 0 && isAttacked(position, king, !white);
+    }
+
+    public static boolean isCapture(Position position, int move) {
+        int to = Move.to(move);
+        return position.piece(to) != PieceCode.EMPTY ||
+                (to == position.getEnPassant() && PieceCode.type(position.piece(Move.from(move))) == PieceCode.PAWN);
+    }
+
+    public static int pseudoLegalMoves(Position position, int[] moves) {
+        boolean white = position.isWhiteToMove();
+        int count = 0;
+        for (int from = 0; from < BoardConfiguration.TILES_MAX; from++) {
+            int code = position.piece(from);
+            if (code == PieceCode.EMPTY || PieceCode.isWhite(code) != white) {
+                continue;
+            }
+            switch (PieceCode.type(code)) {
+                case PieceCode.PAWN:
+                    count = pawnMoves(position, from, white, moves, count);
+                    break;
+                case PieceCode.KNIGHT:
+                    count = stepMoves(position, from, KNIGHT_TARGETS[from], white, moves, count);
+                    break;
+                case PieceCode.BISHOP:
+                    count = slideMoves(position, from, 4, 8, white, moves, count);
+                    break;
+                case PieceCode.ROOK:
+                    count = slideMoves(position, from, 0, 4, white, moves, count);
+                    break;
+                case PieceCode.QUEEN:
+                    count = slideMoves(position, from, 0, 8, white, moves, count);
+                    break;
+                default:
+                    count = stepMoves(position, from, KING_TARGETS[from], white, moves, count);
+                    count = castleMoves(position, from, white, moves, count);
+            }
+        }
+        return count;
+    }
+
+    public static boolean isAttacked(Position position, int square, boolean byWhite) {
+        int colour = byWhite ? 0 : PieceCode.BLACK;
+        int file = square & 7;
+        int pawn = PieceCode.PAWN | colour;
+        if (byWhite) {
+            if (square + 7 < 64 && file > 0 && position.piece(square + 7) == pawn) {
+                return true;
+            }
+            if (square + 9 < 64 && file < 7 && position.piece(square + 9) == pawn) {
+                return true;
+            }
+        } else {
+            if (square - 7 >= 0 && file < 7 && position.piece(square - 7) == pawn) {
+                return true;
+            }
+            if (square - 9 >= 0 && file > 0 && position.piece(square - 9) == pawn) {
+                return true;
+            }
+        }
+        for (int target : KNIGHT_TARGETS[square]) {
+            if (position.piece(target) == (PieceCode.KNIGHT | colour)) {
+                return true;
+            }
+        }
+        for (int target : KING_TARGETS[square]) {
+            if (position.piece(target) == (PieceCode.KING | colour)) {
+                return true;
+            }
+        }
+        for (int direction = 0; direction < 8; direction++) {
+            int slider = direction < 4 ? PieceCode.ROOK | colour : PieceCode.BISHOP | colour;
+            for (int target : RAYS[square][direction]) {
+                int code = position.piece(target);
+                if (code == PieceCode.EMPTY) {
+                    continue;
+                }
+                if (code == slider || code == (PieceCode.QUEEN | colour)) {
+                    return true;
+                }
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static int pawnMoves(Position position, int from, boolean white, int[] moves, int count) {
+        int step = white ? -8 : 8;
+        int row = from >> 3;
+        int to = from + step;
+        if (to >= 0 && to < 64 && position.piece(to) == PieceCode.EMPTY) {
+            count = pawnMove(from, to, moves, count);
+            int doubleTo = to + step;
+            if (row == (white ? 6 : 1) && position.piece(doubleTo) == PieceCode.EMPTY) {
+                moves[count++] = Move.of(from, doubleTo);
+            }
+        }
+        int file = from & 7;
+        for (int side = -1; side <= 1; side += 2) {
+            if ((side < 0 && file == 0) || (side > 0 && file == 7)) {
+                continue;
+            }
+            int target = from + step + side;
+            if (target < 0 || target >= 64) {
+                continue;
+            }
+            int code = position.piece(target);
+            if ((code != PieceCode.EMPTY && PieceCode.isWhite(code) != white) || target == position.getEnPassant()) {
+                count = pawnMove(from, target, moves, count);
+            }
+        }
+        return count;
+    }
+
+    private static int pawnMove(int from, int to, int[] moves, int count) {
+        int row = to >> 3;
+        if (row == 0 || row == 7) {
+            for (int promotion : PROMOTIONS) {
+                moves[count++] = Move.of(from, to, promotion);
+            }
+        } else {
+            moves[count++] = Move.of(from, to);
+        }
+        return count;
+    }
+
+    private static int stepMoves(Position position, int from, int[] targets, boolean white, int[] moves, int count) {
+        for (int to : targets) {
+            int code = position.piece(to);
+            if (code == PieceCode.EMPTY || PieceCode.isWhite(code) != white) {
+                moves[count++] = Move.of(from, to);
+            }
+        }
+        return count;
+    }
+
+    private static int slideMoves(Position position, int from, int firstDirection, int lastDirection, boolean white,
+                                  int[] moves, int count) {
+        for (int direction = firstDirection; direction < lastDirection; direction++) {
+            for (int to : RAYS[from][direction]) {
+                int code = position.piece(to);
+                if (code == PieceCode.EMPTY) {
+                    moves[count++] = Move.of(from, to);
+                    continue;
+                }
+                if (PieceCode.isWhite(code) != white) {
+                    moves[count++] = Move.of(from, to);
+                }
+                break;
+            }
+        }
+        return count;
+    }
+
+    private static int castleMoves(Position position, int from, boolean white, int[] moves, int count) {
+        int castling = position.getCastling();
+        int start = white ? Position.WHITE_KING_START : Position.BLACK_KING_START;
+        if (from != start || castling == 0) {
+            return count;
+        }
+        int kingSide = white ? FenService.CASTLE_WHITE_KING_SIDE : FenService.CASTLE_BLACK_KING_SIDE;
+        int queenSide = white ? FenService.CASTLE_WHITE_QUEEN_SIDE : FenService.CASTLE_BLACK_QUEEN_SIDE;
+        if ((castling & (kingSide | queenSide)) == 0 || isAttacked(position, from, !white)) {
+            return count;
+        }
+        if ((castling & kingSide) != 0 &&
+                position.piece(from + 1) == PieceCode.EMPTY && position.piece(from + 2) == PieceCode.EMPTY &&
+                !isAttacked(position, from + 1, !white)) {
+            moves[count++] = Move.of(from, from + 2);
+        }
+        if ((castling & queenSide) != 0 &&
+                position.piece(from - 1) == PieceCode.EMPTY && position.piece(from - 2) == PieceCode.EMPTY &&
+                position.piece(from - 3) == PieceCode.EMPTY && !isAttacked(position, from - 1, !white)) {
+            moves[count++] = Move.of(from, from - 2);
+        }
+        return count;
+    }
+
+    private static int[] targets(int square, int[][] steps) {
+        int[] result = new int[steps.length];
+        int length = 0;
+        for (int[] step : steps) {
+            int row = square / 8 + step[0];
+            int file = square % 8 + step[1];
+            if (row >= 0 && row < 8 && file >= 0 && file < 8) {
+                result[length++] = row * 8 + file;
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+}
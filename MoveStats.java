@@ -0,0 +1,44 @@
+package com.chess.spring.game;
+
+public class MoveStats {
+    private final int move;
+    private final long whiteWins;
+    private final long draws;
+    private final long blackWins;
+
+    public MoveStats(int move, long whiteWins, long draws, long blackWins) {
+        this.move = move;
+        this.whiteWins = whiteWins;
+        this.draws = draws;
+        this.blackWins = blackWins;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public String getUci() {
+        return Move.toUci(move);
+    }
+
+    public long getWhiteWins() {
+        return whiteWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getBlackWins() {
+        return blackWins;
+    }
+
+    public long getTotal() {
+        return whiteWins + draws + blackWins;
+    }
+
+    @Override
+    public String toString() {
+        return getUci() + " +" + whiteWins + " =" + draws + " -" + blackWins;
+    }
+}
@@ -0,0 +1,224 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+public class OpeningExplorerIndex implements PgnListener {
+    public static final int WHITE_WIN = 0;
+    public static final int DRAW = 1;
+    public static final int BLACK_WIN = 2;
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_PLIES = 40;
+
+    private final int maxPlies;
+    private long[] keys;
+    private int[] heads;
+    private int positions;
+
+    private int[] entryMove;
+    private int[] entryNext;
+    private int[] entryWhite;
+    private int[] entryDraw;
+    private int[] entryBlack;
+    private int entries = 1;
+
+    private long[] gameHashes = new long[MAX_PLIES];
+    private int[] gameMoves = new int[MAX_PLIES];
+    private int gamePlies;
+    private long previousHash;
+
+    public OpeningExplorerIndex() {
+        this(DEFAULT_CAPACITY, MAX_PLIES);
+    }
+
+    public OpeningExplorerIndex(int capacity, int maxPlies) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+        this.maxPlies = maxPlies;
+        this.keys = new long[slots];
+        this.heads = new int[slots];
+        this.entryMove = new int[slots];
+        this.entryNext = new int[slots];
+        this.entryWhite = new int[slots];
+        this.entryDraw = new int[slots];
+        this.entryBlack = new int[slots];
+    }
+
+    @Override
+    public void startGame(Map<String, String> tags, Position start) {
+        gamePlies = 0;
+        previousHash = start.hash();
+    }
+
+    @Override
+    public void onPly(int ply, int move, Position position) {
+        if (gamePlies < maxPlies) {
+            if (gamePlies == gameHashes.length) {
+                gameHashes = Arrays.copyOf(gameHashes, gamePlies * 2);
+                gameMoves = Arrays.copyOf(gameMoves, gamePlies * 2);
+            }
+            gameHashes[gamePlies] = previousHash;
+            gameMoves[gamePlies++] = move;
+        }
+        previousHash = position.hash();
+    }
+
+    @Override
+    public void endGame(String result) {
+        addGame(gameHashes, gameMoves, gamePlies, result);
+        gamePlies = 0;
+    }
+
+    public void addGame(long[] hashes, int[] moves, int plies, String result) {
+        int outcome = outcome(result);
+        if (outcome >= 0) {
+            for (int i = 0; i < Math.min(plies, maxPlies); i++) {
+                add(hashes[i], moves[i], outcome, 1);
+            }
+        }
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    public void add(long hash, int move, int outcome, int count) {
+        int slot = slot(hash, true);
+        int entry = heads[slot];
+        while (entry != 0 && entryMove[entry] != move) {
+            entry = entryNext[entry];
+        }
+        if (entry == 0) {
+            entry = newEntry(move, heads[slot]);
+            heads[slot] = entry;
+        }
+        switch (outcome) {
+            case WHITE_WIN:
+                entryWhite[entry] += count;
+                break;
+            case DRAW:
+                entryDraw[entry] += count;
+                break;
+            default:
+                entryBlack[entry] += count;
+        }
+    }
+
+    public List<MoveStats> query(String fen) throws InvalidDataException {
+        return query(ZobristHash.hash(fen));
+    }
+
+    public List<MoveStats> query(long hash) {
+        List<MoveStats> result = new ArrayList<>();
+        int slot = slot(hash, false);
+        if (slot < 0) {
+            return result;
+        }
+        for (int entry = heads[slot]; entry != 0; entry = entryNext[entry]) {
+            result.add(new MoveStats(entryMove[entry], entryWhite[entry], entryDraw[entry], entryBlack[entry]));
+        }
+        result.sort(Comparator.comparingLong(MoveStats::getTotal).reversed());
+        return result;
+    }
+
+    public int getPositionCount() {
+        return positions;
+    }
+
+    public int getMoveCount() {
+        return entries - 1;
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < heads.length; slot++) {
+            for (int entry = heads[slot]; entry != 0; entry = entryNext[entry]) {
+                visitor.visit(keys[slot], entryMove[entry], entryWhite[entry], entryDraw[entry], entryBlack[entry]);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(heads, 0);
+        positions = 0;
+        entries = 1;
+    }
+
+    public interface EntryVisitor {
+        void visit(long hash, int move, long whiteWins, long draws, long blackWins);
+    }
+
+    public static int outcome(String result) {
+        switch (result) {
+            case "1-0":
+                return WHITE_WIN;
+            case "1/2-1/2":
+                return DRAW;
+            case "0-1":
+                return BLACK_WIN;
+            default:
+                return -1;
+        }
+    }
+
+    private int slot(long hash, boolean create) {
+        int mask = heads.length - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (heads[slot] != 0) {
+            if (keys[slot] == hash) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+        if ((positions + 1) * 4 > heads.length * 3) {
+            grow();
+            return slot(hash, true);
+        }
+        keys[slot] = hash;
+        positions++;
+        return slot;
+    }
+
+    private int newEntry(int move, int next) {
+        if (entries == entryMove.length) {
+            int capacity = entries * 2;
+            entryMove = Arrays.copyOf(entryMove, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+            entryWhite = Arrays.copyOf(entryWhite, capacity);
+            entryDraw = Arrays.copyOf(entryDraw, capacity);
+            entryBlack = Arrays.copyOf(entryBlack, capacity);
+        }
+        entryMove[entries] = move;
+        entryNext[entries] = next;
+        entryWhite[entries] = 0;
+        entryDraw[entries] = 0;
+        entryBlack[entries] = 0;
+        return entries++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        keys = new long[oldKeys.length * 2];
+        heads = new int[oldHeads.length * 2];
+        int mask = heads.length - 1;
+        for (int i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] == 0) {
+                continue;
+            }
+            int slot = (int) (oldKeys[i] ^ (oldKeys[i] >>> 32)) & mask;
+            while (heads[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            heads[slot] = oldHeads[i];
+        }
+    }
+}
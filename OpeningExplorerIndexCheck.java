@@ -0,0 +1,38 @@
+package com.chess.spring.game;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public final class OpeningExplorerIndexCheck {
+    private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+    private static final String GAMES = "[Event \"a\"]\n[Result \"1-0\"]\n\n1. e4 e5 2. Nf3 1-0\n\n" +
+            "[Event \"b\"]\n[Result \"0-1\"]\n\n1. e4 c5 0-1\n\n";
+
+    private OpeningExplorerIndexCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Position position = Position.start();
+        position.makeMove(Move.of(52, 36));
+        check(position.toFen().equals(AFTER_E4), "FEN after 1.e4 was " + position.toFen());
+        check(ZobristHash.hash(AFTER_E4) == position.hash(), "FEN and Position hashes differ after 1.e4");
+        check(ZobristHash.hash(position.toFen()) == position.hash(), "Round-tripped FEN hash differs after 1.e4");
+
+        OpeningExplorerIndex index = new OpeningExplorerIndex();
+        new PgnReader(index).read(Channels.newChannel(new ByteArrayInputStream(GAMES.getBytes(StandardCharsets.UTF_8))));
+        List<MoveStats> replies = index.query(AFTER_E4);
+        check(replies.size() == 2, "Expected 2 replies after 1.e4, got " + replies.size());
+        check(index.query(position.hash()).size() == 2, "Hash query after 1.e4 returned " + index.query(position.hash()));
+        List<MoveStats> first = index.query(Position.START_FEN);
+        check(first.size() == 1 && first.get(0).getTotal() == 2, "Expected 1.e4 played twice, got " + first);
+        System.out.println("OpeningExplorerIndex: ok");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
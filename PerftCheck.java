@@ -0,0 +1,49 @@
+package com.chess.spring.game;
+
+public final class PerftCheck {
+    private static final Object[][] SUITE = {
+            {Position.START_FEN, new long[]{20, 400, 8902, 197281, 4865609}},
+            {"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[]{48, 2039, 97862, 4085603}},
+            {"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[]{14, 191, 2812, 43238, 674624}},
+            {"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", new long[]{6, 264, 9467, 422333}},
+            {"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", new long[]{44, 1486, 62379, 2103487}},
+            {"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", new long[]{46, 2079, 89890, 3894594}}
+    };
+
+    private PerftCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (Object[] test : SUITE) {
+            String fen = (String) test[0];
+            long[] expected = (long[]) test[1];
+            Position position = Position.fromFen(fen);
+            for (int depth = 1; depth <= expected.length; depth++) {
+                long nodes = perft(position, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+                if (nodes != expected[depth - 1]) {
+                    throw new IllegalStateException("Perft(" + depth + ") of " + fen + " was " + nodes +
+                            ", expected " + expected[depth - 1]);
+                }
+            }
+            if (!position.toFen().equals(fen)) {
+                throw new IllegalStateException("Unmake did not restore " + fen + ", got " + position.toFen());
+            }
+        }
+        System.out.println("Perft: ok");
+    }
+
+    static long perft(Position position, int depth, int[][] moves) {
+        int count = MoveGenerator.legalMoves(position, moves[depth - 1]);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[depth - 1][i];
+            position.makeMove(move);
+            nodes += perft(position, depth - 1, moves);
+            position.unmakeMove(move);
+        }
+        return nodes;
+    }
+}
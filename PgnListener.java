@@ -0,0 +1,16 @@
+package com.chess.spring.game;
+
+import java.util.Map;
+
+public interface PgnListener {
+    default void startGame(Map<String, String> tags, Position start) {
+    }
+
+    void onPly(int ply, int move, Position position);
+
+    default void endGame(String result) {
+    }
+
+    default void skipGame(String reason) {
+    }
+}
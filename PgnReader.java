@@ -0,0 +1,309 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class PgnReader {
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    private static final int MAX_TOKEN = 256;
+
+    private static final int NORMAL = 0;
+    private static final int TAG = 1;
+    private static final int BRACE_COMMENT = 2;
+    private static final int LINE_COMMENT = 3;
+
+    private final PgnListener listener;
+    private final ByteBuffer chunk;
+    private final Token token = new Token();
+    private final Position position = new Position();
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private byte[] tag = new byte[MAX_TOKEN];
+    private int tagLength;
+    private boolean tagQuoted;
+    private boolean tagEscaped;
+    private Map<String, String> tags = new HashMap<>();
+
+    private int state = NORMAL;
+    private int variationDepth;
+    private boolean inGame;
+    private boolean skipping;
+    private int ply;
+    private long games;
+    private long plies;
+    private long skippedGames;
+
+    public PgnReader(PgnListener listener) {
+        this(listener, DEFAULT_CHUNK_SIZE);
+    }
+
+    public PgnReader(PgnListener listener, int chunkSize) {
+        this.listener = listener;
+        this.chunk = ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    public void read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel);
+        }
+    }
+
+    public void read(ReadableByteChannel channel) throws IOException {
+        chunk.clear();
+        while (channel.read(chunk) >= 0) {
+            chunk.flip();
+            while (chunk.hasRemaining()) {
+                accept(chunk.get());
+            }
+            chunk.clear();
+        }
+        flushToken();
+        if (inGame) {
+            finishGame("*");
+        }
+    }
+
+    public long getGameCount() {
+        return games;
+    }
+
+    public long getPlyCount() {
+        return plies;
+    }
+
+    public long getSkippedGameCount() {
+        return skippedGames;
+    }
+
+    private void accept(byte b) {
+        char c = (char) (b & 0xFF);
+        switch (state) {
+            case TAG:
+                if (c == '\n' || (c == ']' && !tagQuoted)) {
+                    endTag();
+                    state = NORMAL;
+                    return;
+                }
+                if (tagEscaped) {
+                    tagEscaped = false;
+                } else if (c == '\\' && tagQuoted) {
+                    tagEscaped = true;
+                } else if (c == '"') {
+                    tagQuoted = !tagQuoted;
+                }
+                if (tagLength == tag.length) {
+                    tag = Arrays.copyOf(tag, tagLength * 2);
+                }
+                tag[tagLength++] = b;
+                return;
+            case BRACE_COMMENT:
+                if (c == '}') {
+                    state = NORMAL;
+                }
+                return;
+            case LINE_COMMENT:
+                if (c == '\n') {
+                    state = NORMAL;
+                }
+                return;
+            default:
+                break;
+        }
+        switch (c) {
+            case '{':
+                flushToken();
+                state = BRACE_COMMENT;
+                return;
+            case ';':
+                flushToken();
+                state = LINE_COMMENT;
+                return;
+            case '(':
+                flushToken();
+                variationDepth++;
+                return;
+            case ')':
+                flushToken();
+                variationDepth = Math.max(0, variationDepth - 1);
+                return;
+            case '[':
+                flushToken();
+                if (variationDepth == 0) {
+                    if (inGame) {
+                        finishGame("*");
+                    }
+                    tagLength = 0;
+                    tagQuoted = false;
+                    tagEscaped = false;
+                    state = TAG;
+                }
+                return;
+            case ' ':
+            case '\t':
+            case '\r':
+            case '\n':
+                flushToken();
+                return;
+            default:
+                token.append(b);
+        }
+    }
+
+    private void endTag() {
+        String tag = new String(this.tag, 0, tagLength, StandardCharsets.UTF_8);
+        int space = tag.indexOf(" ");
+        int firstQuote = tag.indexOf("\"");
+        int lastQuote = tag.lastIndexOf("\"");
+        if (space > 0 && firstQuote > space && lastQuote > firstQuote) {
+            tags.put(tag.substring(0, space), unescape(tag, firstQuote + 1, lastQuote));
+        }
+    }
+
+    private static String unescape(String text, int start, int end) {
+        if (text.indexOf('\\', start) < 0 || text.indexOf('\\', start) >= end) {
+            return text.substring(start, end);
+        }
+        StringBuilder value = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                c = text.charAt(++i);
+            }
+            value.append(c);
+        }
+        return value.toString();
+    }
+
+    private void flushToken() {
+        if (token.length == 0) {
+            return;
+        }
+        if (variationDepth == 0) {
+            processToken();
+        }
+        token.length = 0;
+    }
+
+    private void processToken() {
+        if (token.is("1-0") || token.is("0-1") || token.is("1/2-1/2") || token.is("*")) {
+            if (!inGame) {
+                startGame();
+            }
+            finishGame(token.toString());
+            return;
+        }
+        if (token.bytes[0] == '$') {
+            return;
+        }
+        int start = 0;
+        if (token.bytes[0] >= '1' && token.bytes[0] <= '9') {
+            while (start < token.length && token.bytes[start] >= '0' && token.bytes[start] <= '9') {
+                start++;
+            }
+            while (start < token.length && token.bytes[start] == '.') {
+                start++;
+            }
+        }
+        if (start == token.length) {
+            return;
+        }
+        token.offset = start;
+        if (!inGame) {
+            startGame();
+        }
+        if (skipping) {
+            return;
+        }
+        int move = San.parse(position, token, moves);
+        token.offset = 0;
+        if (move == Move.NONE) {
+            skipping = true;
+            skippedGames++;
+            listener.skipGame("Illegal move " + token + " at ply " + (ply + 1));
+            return;
+        }
+        position.makeMove(move);
+        ply++;
+        plies++;
+        listener.onPly(ply, move, position);
+    }
+
+    private void startGame() {
+        inGame = true;
+        skipping = false;
+        ply = 0;
+        String fen = tags.get("FEN");
+        try {
+            position.loadFen(fen != null ? fen : Position.START_FEN);
+        } catch (InvalidDataException | RuntimeException e) {
+            skipping = true;
+            skippedGames++;
+            listener.skipGame("Invalid FEN tag " + fen);
+            return;
+        }
+        listener.startGame(tags, position);
+    }
+
+    private void finishGame(String result) {
+        if (!skipping) {
+            games++;
+            listener.endGame(result);
+        }
+        inGame = false;
+        skipping = false;
+        tags = new HashMap<>();
+    }
+
+    private static class Token implements CharSequence {
+        private final byte[] bytes = new byte[MAX_TOKEN];
+        private int length;
+        private int offset;
+
+        void append(byte b) {
+            if (length < bytes.length) {
+                bytes[length++] = b;
+            }
+        }
+
+        boolean is(String text) {
+            if (length != text.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int length() {
+            return length - offset;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, offset, length - offset, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
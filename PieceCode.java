@@ -0,0 +1,92 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.pieces.*;
+import com.chess.spring.game.pieces.utils.PlayerColor;
+
+public final class PieceCode {
+    public static final int EMPTY = 0;
+    public static final int PAWN = 1;
+    public static final int KNIGHT = 2;
+    public static final int BISHOP = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+    public static final int BLACK = 8;
+    public static final int COUNT = 16;
+
+    private static final String FEN_CHARS = "-PNBRQK--pnbrqk-";
+
+    private PieceCode() {
+    }
+
+    public static int of(Piece piece) {
+        if (piece == null) {
+            return EMPTY;
+        }
+        int type = typeOf(piece.toString().charAt(0));
+        return piece.getPieceAllegiance().isWhite() ? type : type | BLACK;
+    }
+
+    public static int of(char fenChar) {
+        int type = typeOf(Character.toUpperCase(fenChar));
+        return Character.isUpperCase(fenChar) ? type : type | BLACK;
+    }
+
+    public static Piece toPiece(int code, int square, int castling) {
+        PlayerColor color = isWhite(code) ? PlayerColor.WHITE : PlayerColor.BLACK;
+        switch (type(code)) {
+            case PAWN:
+                return new Pawn(color, square);
+            case KNIGHT:
+                return new Knight(color, square);
+            case BISHOP:
+                return new Bishop(color, square);
+            case ROOK:
+                return new Rook(color, square);
+            case QUEEN:
+                return new Queen(color, square);
+            case KING:
+                boolean white = color.isWhite();
+                return new King(color, square,
+                        (castling & (white ? FenService.CASTLE_WHITE_KING_SIDE : FenService.CASTLE_BLACK_KING_SIDE)) != 0,
+                        (castling & (white ? FenService.CASTLE_WHITE_QUEEN_SIDE : FenService.CASTLE_BLACK_QUEEN_SIDE)) != 0);
+            default:
+                return null;
+        }
+    }
+
+    public static char toChar(int code) {
+        return FEN_CHARS.charAt(code);
+    }
+
+    public static int type(int code) {
+        return code & 7;
+    }
+
+    public static boolean isWhite(int code) {
+        return code != EMPTY && (code & BLACK) == 0;
+    }
+
+    public static boolean isBlack(int code) {
+        return (code & BLACK) != 0;
+    }
+
+    private static int typeOf(char upperCaseChar) {
+        switch (upperCaseChar) {
+            case 'P':
+                return PAWN;
+            case 'N':
+                return KNIGHT;
+            case 'B':
+                return BISHOP;
+            case 'R':
+                return ROOK;
+            case 'Q':
+                return QUEEN;
+            case 'K':
+                return KING;
+            default:
+                throw new RuntimeException("Invalid piece " + upperCaseChar);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class PolyglotBook {
+    private static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer buffer;
+    private final PolyglotKeys keys;
+    private final int entries;
+
+    private PolyglotBook(MappedByteBuffer buffer, PolyglotKeys keys) {
+        this.buffer = buffer;
+        this.keys = keys;
+        this.entries = buffer.capacity() / ENTRY_BYTES;
+    }
+
+    public static PolyglotBook open(Path file) throws IOException {
+        return open(file, PolyglotKeys.STANDARD);
+    }
+
+    public static PolyglotBook open(Path file, PolyglotKeys keys) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE || channel.size() % ENTRY_BYTES != 0) {
+                throw new IOException("Invalid Polyglot book " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            return new PolyglotBook(buffer, keys);
+        }
+    }
+
+    public int size() {
+        return entries;
+    }
+
+    public long key(Board board) {
+        return keys.key(board);
+    }
+
+    public long key(Position position) {
+        return keys.key(position);
+    }
+
+    public int find(long key) {
+        int low = 0;
+        int high = entries;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < entries && entryKey(low) == key ? low : -1;
+    }
+
+    public long entryKey(int entry) {
+        return buffer.getLong(entry * ENTRY_BYTES);
+    }
+
+    public int entryMove(int entry) {
+        return buffer.getShort(entry * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    public int entryWeight(int entry) {
+        return buffer.getShort(entry * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+
+    public List<BookMove> lookup(Board board) {
+        long key = keys.key(board);
+        int entry = find(key);
+        if (entry < 0) {
+            return Collections.emptyList();
+        }
+        List<BookMove> moves = new ArrayList<>();
+        for (; entry < entries && entryKey(entry) == key; entry++) {
+            moves.add(new BookMove(uciMove(board, entryMove(entry)), entryWeight(entry)));
+        }
+        return moves;
+    }
+
+    public String pick(Board board, SplittableRandom random) {
+        long key = keys.key(board);
+        int first = find(key);
+        if (first < 0) {
+            return null;
+        }
+        int total = 0;
+        int last = first;
+        for (; last < entries && entryKey(last) == key; last++) {
+            total += entryWeight(last);
+        }
+        if (total == 0) {
+            return uciMove(board, entryMove(first));
+        }
+        int target = random.nextInt(total);
+        for (int entry = first; entry < last; entry++) {
+            target -= entryWeight(entry);
+            if (target < 0) {
+                return uciMove(board, entryMove(entry));
+            }
+        }
+        return uciMove(board, entryMove(first));
+    }
+
+    public static String uciMove(Board board, int move) {
+        int to = (7 - ((move >>> 3) & 7)) * 8 + (move & 7);
+        int from = (7 - ((move >>> 9) & 7)) * 8 + ((move >>> 6) & 7);
+        int promotion = (move >>> 12) & 7;
+        if (PieceCode.type(PieceCode.of(board.getPiece(from))) == PieceCode.KING && from / 8 == to / 8) {
+            if (to - from == 3) {
+                to = from + 2;
+            } else if (from - to == 4) {
+                to = from - 2;
+            }
+        }
+        return FenTokens.uci(Move.of(from, to, promotion == 0 ? 0 : promotion + 1));
+    }
+
+    public static class BookMove {
+        private final String move;
+        private final int weight;
+
+        public BookMove(String move, int weight) {
+            this.move = move;
+            this.weight = weight;
+        }
+
+        public String getMove() {
+            return move;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        @Override
+        public String toString() {
+            return move + " (" + weight + ")";
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.chess.spring.game;
+
+public final class PolyglotKeysCheck {
+    private static final String[][] LINES = {
+            {"", "463b96181691fc9c"},
+            {"e2e4", "823c9b50fd114196"},
+            {"e2e4 d7d5", "0756b94461c50fb0"},
+            {"e2e4 d7d5 e4e5", "662fafb965db29d4"},
+            {"e2e4 d7d5 e4e5 f7f5", "22a48b5a8e47ff78"},
+            {"e2e4 d7d5 e4e5 f7f5 e1e2", "652a607ca3f242c1"},
+            {"e2e4 d7d5 e4e5 f7f5 e1e2 e8f7", "00fdd303c946bdd9"},
+            {"a2a4 b7b5 h2h4 b5b4 c2c4", "3c8123ea7b067637"},
+            {"a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3", "5c3f9b829b279560"}
+    };
+
+    private PolyglotKeysCheck() {
+    }
+
+    public static void main(String[] args) {
+        check(PolyglotKeys.STANDARD.key(Position.start()) == 0x463b96181691fc9cL, "Start position key mismatch");
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (String[] line : LINES) {
+            Position position = Position.start();
+            for (String uci : line[0].split(" ")) {
+                if (!uci.isEmpty()) {
+                    position.makeMove(find(position, uci, moves));
+                }
+            }
+            long key = PolyglotKeys.STANDARD.key(position);
+            check(key == Long.parseUnsignedLong(line[1], 16),
+                    "Key after '" + line[0] + "' was " + Long.toHexString(key) + ", expected " + line[1]);
+        }
+        System.out.println("PolyglotKeys: ok");
+    }
+
+    private static int find(Position position, String uci, int[] moves) {
+        int count = MoveGenerator.legalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toUci(moves[i]).equals(uci)) {
+                return moves[i];
+            }
+        }
+        throw new IllegalStateException("Illegal move " + uci + " in " + position.toFen());
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.board.BoardBuilder;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+import com.chess.spring.game.pieces.utils.PlayerColor;
+
+import java.util.Arrays;
+
+public class Position {
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    public static final int WHITE_KING_START = 60;
+    public static final int BLACK_KING_START = 4;
+
+    private static final int[] CASTLING_KEPT = new int[BoardConfiguration.TILES_MAX];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, 15);
+        CASTLING_KEPT[WHITE_KING_START] &= ~(FenService.CASTLE_WHITE_KING_SIDE | FenService.CASTLE_WHITE_QUEEN_SIDE);
+        CASTLING_KEPT[63] &= ~FenService.CASTLE_WHITE_KING_SIDE;
+        CASTLING_KEPT[56] &= ~FenService.CASTLE_WHITE_QUEEN_SIDE;
+        CASTLING_KEPT[BLACK_KING_START] &= ~(FenService.CASTLE_BLACK_KING_SIDE | FenService.CASTLE_BLACK_QUEEN_SIDE);
+        CASTLING_KEPT[7] &= ~FenService.CASTLE_BLACK_KING_SIDE;
+        CASTLING_KEPT[0] &= ~FenService.CASTLE_BLACK_QUEEN_SIDE;
+    }
+
+    private final byte[] squares = new byte[BoardConfiguration.TILES_MAX];
+    private boolean whiteToMove = true;
+    private int castling;
+    private int enPassant = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private long hash = ZobristHash.castling(0);
+    private int whiteKing = -1;
+    private int blackKing = -1;
+    private int[] undoState = new int[64];
+    private long[] undoHash = new long[64];
+    private int undoCount;
+
+    public static Position of(Board board) {
+        Position position = new Position();
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            position.put(i, PieceCode.of(board.getPiece(i)));
+        }
+        position.setState(FenService.isWhiteToMove(board), FenService.castlingMask(board),
+                FenService.enPassantSquare(board), 0, 1);
+        return position;
+    }
+
+    public static Position fromFen(String fen) throws InvalidDataException {
+        Position position = new Position();
+        position.loadFen(fen);
+        return position;
+    }
+
+    public static Position start() {
+        try {
+            return fromFen(START_FEN);
+        } catch (InvalidDataException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void loadFen(String fen) throws InvalidDataException {
+        FenService.parse(fen, this);
+    }
+
+    public String toFen() {
+        StringBuilder builder = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int code = squares[row * 8 + file];
+                if (code == PieceCode.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                builder.append(PieceCode.toChar(code));
+            }
+            if (empty > 0) {
+                builder.append((char) ('0' + empty));
+            }
+            if (row < 7) {
+                builder.append('/');
+            }
+        }
+        builder.append(' ').append(FenTokens.side(whiteToMove))
+                .append(' ').append(FenTokens.castling(castling))
+                .append(' ').append(FenTokens.square(enPassant));
+        return builder.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+    public Board toBoard() {
+        BoardBuilder builder = new BoardBuilder();
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            int code = squares[i];
+            if (code == PieceCode.EMPTY) {
+                continue;
+            }
+            builder.setPiece(PieceCode.toPiece(code, i, castling));
+        }
+        builder.setMoveMaker(whiteToMove ? PlayerColor.WHITE : PlayerColor.BLACK);
+        return builder.build();
+    }
+
+    public void copyFrom(Position other) {
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        whiteToMove = other.whiteToMove;
+        castling = other.castling;
+        enPassant = other.enPassant;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+        whiteKing = other.whiteKing;
+        blackKing = other.blackKing;
+        undoCount = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(squares, (byte) PieceCode.EMPTY);
+        whiteToMove = true;
+        castling = 0;
+        enPassant = -1;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        hash = ZobristHash.castling(0);
+        whiteKing = -1;
+        blackKing = -1;
+        undoCount = 0;
+    }
+
+    public void put(int square, int code) {
+        int previous = squares[square];
+        hash ^= ZobristHash.piece(previous, square) ^ ZobristHash.piece(code, square);
+        squares[square] = (byte) code;
+        if (previous == PieceCode.KING && whiteKing == square) {
+            whiteKing = -1;
+        } else if (previous == (PieceCode.KING | PieceCode.BLACK) && blackKing == square) {
+            blackKing = -1;
+        }
+        if (code == PieceCode.KING) {
+            whiteKing = square;
+        } else if (code == (PieceCode.KING | PieceCode.BLACK)) {
+            blackKing = square;
+        }
+    }
+
+    public void setState(boolean whiteToMove, int castling, int enPassant, int halfmoveClock, int fullmoveNumber) {
+        hash ^= ZobristHash.castling(this.castling) ^ ZobristHash.enPassant(this.enPassant);
+        if (!this.whiteToMove) {
+            hash ^= ZobristHash.side();
+        }
+        this.whiteToMove = whiteToMove;
+        this.castling = castling;
+        this.enPassant = enPassant;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        hash ^= ZobristHash.castling(castling) ^ ZobristHash.enPassant(enPassant);
+        if (!whiteToMove) {
+            hash ^= ZobristHash.side();
+        }
+    }
+
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = squares[from];
+        int type = PieceCode.type(piece);
+        int captured = squares[to];
+        int enPassantCapture = 0;
+        if (undoCount == undoState.length) {
+            undoState = Arrays.copyOf(undoState, undoCount * 2);
+            undoHash = Arrays.copyOf(undoHash, undoCount * 2);
+        }
+        undoHash[undoCount] = hash;
+        hash ^= ZobristHash.castling(castling) ^ ZobristHash.enPassant(enPassant) ^ ZobristHash.side();
+        if (type == PieceCode.PAWN && to == enPassant) {
+            int capturedSquare = whiteToMove ? to + 8 : to - 8;
+            captured = squares[capturedSquare];
+            enPassantCapture = 1;
+            put(capturedSquare, PieceCode.EMPTY);
+        } else if (type == PieceCode.KING && (to - from == 2 || from - to == 2)) {
+            int rookFrom = to > from ? from + 3 : from - 4;
+            int rookTo = to > from ? from + 1 : from - 1;
+            put(rookTo, squares[rookFrom]);
+            put(rookFrom, PieceCode.EMPTY);
+        }
+        undoState[undoCount++] = captured | (enPassantCapture << 4) | (castling << 5) | ((enPassant + 1) << 9) |
+                (halfmoveClock << 16);
+        put(from, PieceCode.EMPTY);
+        int promotion = Move.promotion(move);
+        put(to, promotion == 0 ? piece : promotion | (piece & PieceCode.BLACK));
+        castling &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        enPassant = type == PieceCode.PAWN && (to - from == 16 || from - to == 16) ? (from + to) >> 1 : -1;
+        halfmoveClock = type == PieceCode.PAWN || captured != PieceCode.EMPTY ? 0 : halfmoveClock + 1;
+        if (!whiteToMove) {
+            fullmoveNumber++;
+        }
+        whiteToMove = !whiteToMove;
+        hash ^= ZobristHash.castling(castling) ^ ZobristHash.enPassant(enPassant);
+    }
+
+    public void unmakeMove(int move) {
+        int state = undoState[--undoCount];
+        long previousHash = undoHash[undoCount];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        whiteToMove = !whiteToMove;
+        if (!whiteToMove) {
+            fullmoveNumber--;
+        }
+        int piece = squares[to];
+        if (Move.promotion(move) != 0) {
+            piece = PieceCode.PAWN | (piece & PieceCode.BLACK);
+        }
+        int captured = state & 15;
+        put(from, piece);
+        if ((state & 16) != 0) {
+            put(to, PieceCode.EMPTY);
+            put(whiteToMove ? to + 8 : to - 8, captured);
+        } else {
+            put(to, captured);
+            if (PieceCode.type(piece) == PieceCode.KING && (to - from == 2 || from - to == 2)) {
+                int rookFrom = to > from ? from + 3 : from - 4;
+                int rookTo = to > from ? from + 1 : from - 1;
+                put(rookFrom, squares[rookTo]);
+                put(rookTo, PieceCode.EMPTY);
+            }
+        }
+        castling = (state >>> 5) & 15;
+        enPassant = ((state >>> 9) & 127) - 1;
+        halfmoveClock = state >>> 16;
+        hash = previousHash;
+    }
+
+    public int piece(int square) {
+        return squares[square];
+    }
+
+    public byte[] squares() {
+        return squares;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public int getCastling() {
+        return castling;
+    }
+
+    public int getEnPassant() {
+        return enPassant;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public long hash() {
+        return hash;
+    }
+
+    public int kingSquare(boolean white) {
+        return white ? whiteKing : blackKing;
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
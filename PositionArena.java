@@ -0,0 +1,243 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+import com.chess.spring.game.pieces.Piece;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class PositionArena implements AutoCloseable {
+    public static final int SLOT_BYTES = PositionCodec.BYTES;
+
+    private static final int DEFAULT_SLOTS_PER_SEGMENT = 1 << 20;
+    private static final ValueLayout.OfLong OCCUPANCY = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    private static final ValueLayout.OfShort COUNTER = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private final Arena arena = Arena.ofShared();
+    private final AtomicReferenceArray<MemorySegment> segments;
+    private final int slotsPerSegment;
+    private final long capacity;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Position> positions = ThreadLocal.withInitial(Position::new);
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[SLOT_BYTES]);
+
+    public PositionArena(long capacity) {
+        this(capacity, DEFAULT_SLOTS_PER_SEGMENT);
+    }
+
+    public PositionArena(long capacity, int slotsPerSegment) {
+        if (capacity <= 0 || slotsPerSegment <= 0) {
+            throw new IllegalArgumentException("Invalid arena size: " + capacity + "/" + slotsPerSegment);
+        }
+        long segmentCount = (capacity + slotsPerSegment - 1) / slotsPerSegment;
+        if (segmentCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many arena segments: " + segmentCount);
+        }
+        this.capacity = capacity;
+        this.slotsPerSegment = slotsPerSegment;
+        this.segments = new AtomicReferenceArray<>((int) segmentCount);
+    }
+
+    public long add(String fen) throws InvalidDataException {
+        Position position = positions.get();
+        FenService.parse(fen, position);
+        return add(position);
+    }
+
+    public long add(Board board) {
+        return add(Position.of(board));
+    }
+
+    public long add(Position position) {
+        long slot = reserved.getAndIncrement();
+        if (slot >= capacity) {
+            reserved.decrementAndGet();
+            throw new IllegalStateException("Position arena is full: " + capacity);
+        }
+        try {
+            write(slot, position);
+        } catch (RuntimeException | Error e) {
+            failed.add(slot);
+            publish(slot);
+            throw e;
+        }
+        publish(slot);
+        return slot;
+    }
+
+    public void set(long slot, Position position) {
+        checkWritten(slot);
+        write(slot, position);
+    }
+
+    public void read(long slot, Position position) {
+        checkWritten(slot);
+        byte[] bytes = scratch.get();
+        MemorySegment.copy(segment(slot, false), ValueLayout.JAVA_BYTE, offset(slot), bytes, 0, SLOT_BYTES);
+        PositionCodec.decode(bytes, 0, position);
+    }
+
+    public String fen(long slot) {
+        Position position = positions.get();
+        read(slot, position);
+        return position.toFen();
+    }
+
+    public View view(long slot) {
+        return new View().moveTo(slot);
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getReservedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < segments.length(); i++) {
+            MemorySegment segment = segments.get(i);
+            if (segment != null) {
+                bytes += segment.byteSize();
+            }
+        }
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private void write(long slot, Position position) {
+        byte[] bytes = scratch.get();
+        PositionCodec.encode(position, bytes, 0);
+        MemorySegment.copy(bytes, 0, segment(slot, true), ValueLayout.JAVA_BYTE, offset(slot), SLOT_BYTES);
+    }
+
+    private void publish(long slot) {
+        while (size.get() != slot) {
+            Thread.yield();
+        }
+        size.set(slot + 1);
+    }
+
+    private void checkWritten(long slot) {
+        if (slot >= size.get() || !failed.isEmpty() && failed.contains(slot)) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " was never written");
+        }
+    }
+
+    private MemorySegment segment(long slot, boolean create) {
+        if (slot < 0 || slot >= capacity) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " outside arena of " + capacity);
+        }
+        int index = (int) (slot / slotsPerSegment);
+        MemorySegment segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        if (!create) {
+            throw new IndexOutOfBoundsException("Slot " + slot + " was never written");
+        }
+        synchronized (segments) {
+            segment = segments.get(index);
+            if (segment == null) {
+                long slots = Math.min(slotsPerSegment, capacity - (long) index * slotsPerSegment);
+                segment = arena.allocate(slots * SLOT_BYTES, Long.BYTES);
+                segments.set(index, segment);
+            }
+            return segment;
+        }
+    }
+
+    private long offset(long slot) {
+        return (slot % slotsPerSegment) * SLOT_BYTES;
+    }
+
+    public class View {
+        private MemorySegment segment;
+        private long base;
+        private long slot;
+
+        public View moveTo(long slot) {
+            checkWritten(slot);
+            this.segment = segment(slot, false);
+            this.base = offset(slot);
+            this.slot = slot;
+            return this;
+        }
+
+        public long getSlot() {
+            return slot;
+        }
+
+        public int pieceCode(int square) {
+            long occupancy = segment.get(OCCUPANCY, base);
+            if ((occupancy & (1L << square)) == 0) {
+                return PieceCode.EMPTY;
+            }
+            int index = Long.bitCount(occupancy & ((1L << square) - 1));
+            int packed = segment.get(ValueLayout.JAVA_BYTE, base + PositionCodec.NIBBLES_OFFSET + (index >> 1));
+            return (index & 1) == 0 ? (packed >>> 4) & 15 : packed & 15;
+        }
+
+        public Piece getPiece(int square) {
+            return PieceCode.toPiece(pieceCode(square), square, getCastling());
+        }
+
+        public int pieceCount() {
+            return Long.bitCount(segment.get(OCCUPANCY, base));
+        }
+
+        public boolean isWhiteToMove() {
+            return (segment.get(ValueLayout.JAVA_BYTE, base + PositionCodec.FLAGS_OFFSET) & 1) == 0;
+        }
+
+        public int getCastling() {
+            return (segment.get(ValueLayout.JAVA_BYTE, base + PositionCodec.FLAGS_OFFSET) >>> 1) & 15;
+        }
+
+        public int getEnPassant() {
+            int enPassant = segment.get(ValueLayout.JAVA_BYTE, base + PositionCodec.EN_PASSANT_OFFSET) & 0xFF;
+            return enPassant == PositionCodec.NO_EN_PASSANT ? -1 : enPassant;
+        }
+
+        public int getHalfmoveClock() {
+            return segment.get(COUNTER, base + PositionCodec.HALFMOVE_OFFSET) & 0xFFFF;
+        }
+
+        public int getFullmoveNumber() {
+            return segment.get(COUNTER, base + PositionCodec.FULLMOVE_OFFSET) & 0xFFFF;
+        }
+
+        public Board toBoard() {
+            Position position = new Position();
+            read(slot, position);
+            return position.toBoard();
+        }
+
+        public String toFen() {
+            return fen(slot);
+        }
+
+        public byte[] squares(byte[] out) {
+            for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+                out[square] = (byte) pieceCode(square);
+            }
+            return out;
+        }
+    }
+}
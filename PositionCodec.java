@@ -0,0 +1,85 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+public final class PositionCodec {
+    public static final int BYTES = 32;
+
+    static final int NIBBLES_OFFSET = 8;
+    static final int FLAGS_OFFSET = 24;
+    static final int EN_PASSANT_OFFSET = 25;
+    static final int HALFMOVE_OFFSET = 26;
+    static final int FULLMOVE_OFFSET = 28;
+    static final int NO_EN_PASSANT = 0xFF;
+    private static final int MAX_PIECES = 32;
+
+    private PositionCodec() {
+    }
+
+    public static void encode(Position position, byte[] out, int offset) {
+        long occupancy = 0;
+        int pieces = 0;
+        for (int i = offset + NIBBLES_OFFSET; i < offset + BYTES; i++) {
+            out[i] = 0;
+        }
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = position.piece(square);
+            if (code == PieceCode.EMPTY) {
+                continue;
+            }
+            if (pieces == MAX_PIECES) {
+                throw new IllegalArgumentException("Too many pieces to encode " + position.toFen());
+            }
+            occupancy |= 1L << square;
+            int index = offset + NIBBLES_OFFSET + (pieces >> 1);
+            out[index] |= (byte) ((pieces & 1) == 0 ? code << 4 : code);
+            pieces++;
+        }
+        putLong(out, offset, occupancy);
+        out[offset + FLAGS_OFFSET] = (byte) ((position.isWhiteToMove() ? 0 : 1) | (position.getCastling() << 1));
+        out[offset + EN_PASSANT_OFFSET] = (byte) (position.getEnPassant() < 0 ? NO_EN_PASSANT : position.getEnPassant());
+        putShort(out, offset + HALFMOVE_OFFSET, position.getHalfmoveClock());
+        putShort(out, offset + FULLMOVE_OFFSET, position.getFullmoveNumber());
+    }
+
+    public static void decode(byte[] in, int offset, Position position) {
+        position.clear();
+        long occupancy = getLong(in, offset);
+        int pieces = 0;
+        while (occupancy != 0) {
+            int square = Long.numberOfTrailingZeros(occupancy);
+            occupancy &= occupancy - 1;
+            int packed = in[offset + NIBBLES_OFFSET + (pieces >> 1)];
+            position.put(square, (pieces & 1) == 0 ? (packed >>> 4) & 15 : packed & 15);
+            pieces++;
+        }
+        int flags = in[offset + FLAGS_OFFSET];
+        int enPassant = in[offset + EN_PASSANT_OFFSET] & 0xFF;
+        position.setState((flags & 1) == 0, (flags >>> 1) & 15, enPassant == NO_EN_PASSANT ? -1 : enPassant,
+                getShort(in, offset + HALFMOVE_OFFSET), getShort(in, offset + FULLMOVE_OFFSET));
+    }
+
+    static void putLong(byte[] out, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            out[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    static long getLong(byte[] in, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (in[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    static void putShort(byte[] out, int offset, int value) {
+        out[offset] = (byte) (value >>> 8);
+        out[offset + 1] = (byte) value;
+    }
+
+    static int getShort(byte[] in, int offset) {
+        return ((in[offset] & 0xFF) << 8) | (in[offset + 1] & 0xFF);
+    }
+}
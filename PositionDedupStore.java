@@ -0,0 +1,282 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class PositionDedupStore implements AutoCloseable {
+    private static final int MAGIC = 0x44445550;
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 16;
+    private static final int MIN_BUCKET_BITS = 4;
+    private static final int MAX_BUCKET_BITS = 32;
+    private static final int MAP_BUCKET_BITS = 27;
+    private static final int DEFAULT_BITS_PER_KEY = 10;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int BUCKET_BITS_OFFSET = 8;
+    private static final int CLEAN_OFFSET = 12;
+    private static final int LOG_BYTES_OFFSET = 16;
+
+    private final FileChannel log;
+    private final FileChannel index;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] heads;
+    private final int bucketBits;
+    private final BlockedBloomFilter filter;
+    private final ByteBuffer pending = ByteBuffer.allocate(RECORD_BYTES * 4096).order(ByteOrder.LITTLE_ENDIAN);
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final long openedNanos = System.nanoTime();
+    private long flushedBytes;
+
+    private long checks;
+    private long unique;
+    private long duplicates;
+    private long bloomRejections;
+    private long falsePositives;
+    private long diskReads;
+
+    public PositionDedupStore(Path directory, long expectedPositions) throws IOException {
+        this(directory, expectedPositions, DEFAULT_BITS_PER_KEY);
+    }
+
+    public PositionDedupStore(Path directory, long expectedPositions, int bitsPerKey) throws IOException {
+        Files.createDirectories(directory);
+        long buckets = Long.highestOneBit(Math.max(1L << MIN_BUCKET_BITS, expectedPositions) * 2 - 1);
+        this.bucketBits = Math.min(MAX_BUCKET_BITS, Long.numberOfTrailingZeros(buckets));
+        this.filter = new BlockedBloomFilter(Math.max(1, expectedPositions), bitsPerKey);
+        this.log = FileChannel.open(directory.resolve("positions.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.index = FileChannel.open(directory.resolve("positions.idx"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = HEADER_BYTES + (8L << bucketBits);
+        long logBytes = log.size() - (log.size() % RECORD_BYTES);
+        log.truncate(logBytes);
+        this.flushedBytes = logBytes;
+        ByteBuffer existing = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        boolean reused = index.size() == size && index.read(existing, 0) == HEADER_BYTES &&
+                existing.getInt(MAGIC_OFFSET) == MAGIC && existing.getInt(VERSION_OFFSET) == VERSION &&
+                existing.getInt(BUCKET_BITS_OFFSET) == bucketBits && existing.getInt(CLEAN_OFFSET) == 1 &&
+                existing.getLong(LOG_BYTES_OFFSET) == logBytes;
+        if (!reused) {
+            index.truncate(0);
+        }
+        this.header = index.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int mapBits = Math.min(bucketBits, MAP_BUCKET_BITS);
+        this.heads = new MappedByteBuffer[1 << (bucketBits - mapBits)];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = index.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + ((long) i << (mapBits + 3)),
+                    8L << mapBits);
+            heads[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (!reused) {
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(BUCKET_BITS_OFFSET, bucketBits);
+        }
+        header.putInt(CLEAN_OFFSET, 0);
+        header.force();
+        replay(logBytes, !reused);
+    }
+
+    public boolean add(String fen) throws InvalidDataException {
+        return add(ZobristHash.hash(fen));
+    }
+
+    public boolean add(Board board) {
+        return add(Position.of(board));
+    }
+
+    public boolean add(Position position) {
+        return add(position.hash());
+    }
+
+    public synchronized boolean add(long hash) {
+        checks++;
+        if (filter.mightContain(hash)) {
+            try {
+                if (contains(hash)) {
+                    duplicates++;
+                    return false;
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read dedup index", e);
+            }
+            falsePositives++;
+        } else {
+            bloomRejections++;
+        }
+        try {
+            append(hash);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to append to dedup index", e);
+        }
+        filter.put(hash);
+        unique++;
+        return true;
+    }
+
+    public synchronized boolean mightContain(long hash) {
+        return filter.mightContain(hash);
+    }
+
+    public synchronized long getCheckCount() {
+        return checks;
+    }
+
+    public synchronized long getUniqueCount() {
+        return unique;
+    }
+
+    public synchronized long getDuplicateCount() {
+        return duplicates;
+    }
+
+    public synchronized long getBloomRejectionCount() {
+        return bloomRejections;
+    }
+
+    public synchronized long getFalsePositiveCount() {
+        return falsePositives;
+    }
+
+    public synchronized long getDiskReadCount() {
+        return diskReads;
+    }
+
+    public synchronized double getFalsePositiveRate() {
+        long negatives = bloomRejections + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+
+    public synchronized double getChecksPerSecond() {
+        long elapsed = System.nanoTime() - openedNanos;
+        return elapsed <= 0 ? 0 : checks * 1e9 / elapsed;
+    }
+
+    public synchronized long size() {
+        return (flushedBytes + pending.position()) / RECORD_BYTES;
+    }
+
+    public synchronized void flush() throws IOException {
+        drain();
+        log.force(false);
+        forceHeads();
+        header.putLong(LOG_BYTES_OFFSET, flushedBytes);
+        header.putInt(CLEAN_OFFSET, 1);
+        header.force();
+        header.putInt(CLEAN_OFFSET, 0);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        drain();
+        log.force(false);
+        forceHeads();
+        header.putLong(LOG_BYTES_OFFSET, flushedBytes);
+        header.putInt(CLEAN_OFFSET, 1);
+        header.force();
+        log.close();
+        index.close();
+    }
+
+    private boolean contains(long hash) throws IOException {
+        long offset = head(bucket(hash));
+        while (offset != 0) {
+            long key;
+            long previous;
+            if (offset > flushedBytes) {
+                int position = (int) (offset - 1 - flushedBytes);
+                key = pending.getLong(position);
+                previous = pending.getLong(position + 8);
+            } else {
+                diskReads++;
+                record.clear();
+                while (record.hasRemaining()) {
+                    if (log.read(record, offset - 1 + record.position()) < 0) {
+                        throw new IOException("Dedup log truncated at " + offset);
+                    }
+                }
+                key = record.getLong(0);
+                previous = record.getLong(8);
+            }
+            if (key == hash) {
+                return true;
+            }
+            offset = previous;
+        }
+        return false;
+    }
+
+    private void append(long hash) throws IOException {
+        if (!pending.hasRemaining()) {
+            drain();
+        }
+        long bucket = bucket(hash);
+        long offset = flushedBytes + pending.position() + 1;
+        pending.putLong(hash).putLong(head(bucket));
+        setHead(bucket, offset);
+    }
+
+    private void drain() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            log.write(pending, flushedBytes + pending.position());
+        }
+        flushedBytes += pending.limit();
+        pending.clear();
+    }
+
+    private void replay(long logBytes, boolean rebuild) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(RECORD_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+        long position = 0;
+        while (position < logBytes) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), logBytes - position));
+            while (chunk.hasRemaining()) {
+                if (log.read(chunk, position + chunk.position()) < 0) {
+                    throw new IOException("Dedup log truncated at " + (position + chunk.position()));
+                }
+            }
+            for (int i = 0; i < chunk.limit(); i += RECORD_BYTES) {
+                long hash = chunk.getLong(i);
+                filter.put(hash);
+                if (rebuild) {
+                    long bucket = bucket(hash);
+                    chunk.putLong(i + 8, head(bucket));
+                    log.write(chunk.duplicate().position(i + 8).limit(i + RECORD_BYTES), position + i + 8);
+                    setHead(bucket, position + i + 1);
+                }
+            }
+            position += chunk.limit();
+        }
+    }
+
+    private long bucket(long hash) {
+        return (hash * 0x9E3779B97F4A7C15L) >>> (64 - bucketBits);
+    }
+
+    private long head(long bucket) {
+        return heads[(int) (bucket >>> MAP_BUCKET_BITS)].getLong((int) (bucket & ((1 << MAP_BUCKET_BITS) - 1)) << 3);
+    }
+
+    private void setHead(long bucket, long offset) {
+        heads[(int) (bucket >>> MAP_BUCKET_BITS)].putLong((int) (bucket & ((1 << MAP_BUCKET_BITS) - 1)) << 3, offset);
+    }
+
+    private void forceHeads() {
+        for (MappedByteBuffer map : heads) {
+            map.force();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+import com.chess.spring.game.pieces.*;
+
+public class PositionEvaluator {
+    public static final int PAWN_VALUE = 100;
+    public static final int KNIGHT_VALUE = 320;
+    public static final int BISHOP_VALUE = 330;
+    public static final int ROOK_VALUE = 500;
+    public static final int QUEEN_VALUE = 900;
+    public static final int BISHOP_PAIR_BONUS = 30;
+
+    private static final int[] PAWN_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0
+    };
+
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] ROOK_TABLE = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0
+    };
+
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20
+    };
+
+    private static final int[] KING_TABLE = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20
+    };
+
+    private static final int WHITE = 0;
+    private static final int BLACK = 1;
+
+    private final int[] bishops = new int[2];
+
+    public int evaluate(Board board) {
+        bishops[WHITE] = 0;
+        bishops[BLACK] = 0;
+        int score = 0;
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            Piece piece = board.getPiece(i);
+            if (piece == null) {
+                continue;
+            }
+            boolean white = piece.getPieceAllegiance().isWhite();
+            int square = white ? i : i ^ 56;
+            int value;
+            switch (piece.toString().charAt(0)) {
+                case 'P':
+                    value = PAWN_VALUE + PAWN_TABLE[square];
+                    break;
+                case 'N':
+                    value = KNIGHT_VALUE + KNIGHT_TABLE[square];
+                    break;
+                case 'B':
+                    value = BISHOP_VALUE + BISHOP_TABLE[square];
+                    bishops[white ? WHITE : BLACK]++;
+                    break;
+                case 'R':
+                    value = ROOK_VALUE + ROOK_TABLE[square];
+                    break;
+                case 'Q':
+                    value = QUEEN_VALUE + QUEEN_TABLE[square];
+                    break;
+                case 'K':
+                    value = KING_TABLE[square];
+                    break;
+                default:
+                    throw new RuntimeException("Invalid piece " + piece);
+            }
+            score += white ? value : -value;
+        }
+        if (bishops[WHITE] >= 2) {
+            score += BISHOP_PAIR_BONUS;
+        }
+        if (bishops[BLACK] >= 2) {
+            score -= BISHOP_PAIR_BONUS;
+        }
+        return score;
+    }
+}
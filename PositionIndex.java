@@ -0,0 +1,160 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.ExceptionMessages;
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PositionIndex {
+    private static final int MAX_COUNT = 10;
+    private static final int LIGHT = 0;
+    private static final int DARK = 1;
+
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final CompressedBitmap[][] pieceOn = new CompressedBitmap[PieceCode.COUNT][BoardConfiguration.TILES_MAX];
+    private final CompressedBitmap[][] pieceOnColour = new CompressedBitmap[PieceCode.COUNT][2];
+    private final CompressedBitmap[][] pieceCount = new CompressedBitmap[PieceCode.COUNT][MAX_COUNT + 1];
+    private final CompressedBitmap[] sideToMove = {new CompressedBitmap(), new CompressedBitmap()};
+    private final Map<String, CompressedBitmap> materials = new HashMap<>();
+    private final int[] counts = new int[PieceCode.COUNT];
+    private final byte[] scratch = new byte[BoardConfiguration.TILES_MAX];
+    private int size;
+
+    public int add(String fen) throws InvalidDataException {
+        return add(FenService.parse(fen));
+    }
+
+    public int add(Board board) {
+        return add(TablebaseIndex.squares(board, scratch), FenService.isWhiteToMove(board));
+    }
+
+    public int add(Position position) {
+        return add(position.squares(), position.isWhiteToMove());
+    }
+
+    private int add(byte[] squares, boolean whiteToMove) {
+        int id = size++;
+        all.add(id);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = squares[square];
+            if (code == PieceCode.EMPTY) {
+                continue;
+            }
+            counts[code]++;
+            bitmap(pieceOn, code, square).add(id);
+            bitmap(pieceOnColour, code, squareColour(square)).add(id);
+        }
+        for (int code = 1; code < PieceCode.COUNT; code++) {
+            if (code != PieceCode.BLACK && PieceCode.type(code) != 7) {
+                bitmap(pieceCount, code, Math.min(MAX_COUNT, counts[code])).add(id);
+            }
+        }
+        materials.computeIfAbsent(material(counts), key -> new CompressedBitmap()).add(id);
+        sideToMove[whiteToMove ? 0 : 1].add(id);
+        return id;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    public static String material(int[] counts) {
+        StringBuilder builder = new StringBuilder();
+        for (int colour : new int[]{0, PieceCode.BLACK}) {
+            if (colour != 0) {
+                builder.append('v');
+            }
+            for (int type = PieceCode.KING; type >= PieceCode.PAWN; type--) {
+                for (int i = 0; i < counts[type | colour]; i++) {
+                    builder.append(PieceCode.toChar(type));
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int squareColour(int square) {
+        return ((square >> 3) + (square & 7)) % 2 == 0 ? LIGHT : DARK;
+    }
+
+    private static CompressedBitmap bitmap(CompressedBitmap[][] bitmaps, int code, int slot) {
+        CompressedBitmap bitmap = bitmaps[code][slot];
+        if (bitmap == null) {
+            bitmap = new CompressedBitmap();
+            bitmaps[code][slot] = bitmap;
+        }
+        return bitmap;
+    }
+
+    private static CompressedBitmap orEmpty(CompressedBitmap bitmap) {
+        return bitmap == null ? new CompressedBitmap() : bitmap;
+    }
+
+    private static int square(String name) throws InvalidDataException {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h' ||
+                name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new InvalidDataException(ExceptionMessages.SYSTEM_ERROR_INVALID_DATA.getInfo());
+        }
+        return ('8' - name.charAt(1)) * 8 + (name.charAt(0) - 'a');
+    }
+
+    public class Query {
+        private final List<CompressedBitmap> clauses = new ArrayList<>();
+
+        public Query pieceOn(char piece, String square) throws InvalidDataException {
+            clauses.add(orEmpty(pieceOn[PieceCode.of(piece)][square(square)]));
+            return this;
+        }
+
+        public Query pieceCount(char piece, int count) {
+            clauses.add(count > MAX_COUNT ? new CompressedBitmap() : orEmpty(pieceCount[PieceCode.of(piece)][count]));
+            return this;
+        }
+
+        public Query material(String material) {
+            clauses.add(orEmpty(materials.get(material)));
+            return this;
+        }
+
+        public Query whiteToMove(boolean white) {
+            clauses.add(sideToMove[white ? 0 : 1]);
+            return this;
+        }
+
+        public Query oppositeColouredBishops() {
+            int white = PieceCode.BISHOP;
+            int black = PieceCode.BISHOP | PieceCode.BLACK;
+            CompressedBitmap lightDark = orEmpty(pieceOnColour[white][LIGHT]).and(orEmpty(pieceOnColour[black][DARK]));
+            CompressedBitmap darkLight = orEmpty(pieceOnColour[white][DARK]).and(orEmpty(pieceOnColour[black][LIGHT]));
+            clauses.add(lightDark.or(darkLight));
+            clauses.add(orEmpty(pieceCount[white][1]));
+            clauses.add(orEmpty(pieceCount[black][1]));
+            return this;
+        }
+
+        public CompressedBitmap execute() {
+            if (clauses.isEmpty()) {
+                return all.or(new CompressedBitmap());
+            }
+            List<CompressedBitmap> ordered = new ArrayList<>(clauses);
+            ordered.sort((a, b) -> Long.compare(a.cardinality(), b.cardinality()));
+            CompressedBitmap result = ordered.get(0);
+            for (int i = 1; i < ordered.size() && !result.isEmpty(); i++) {
+                result = result.and(ordered.get(i));
+            }
+            return result == ordered.get(0) ? result.or(new CompressedBitmap()) : result;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class PositionPipeline {
+    private static final int[] MATERIAL_VALUES = {0, 1, 3, 3, 5, 9, 0, 0};
+    private static final int KING_VALUE = 100;
+    private static final int CHUNK_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final List<Supplier<Stage>> stages = new ArrayList<>();
+    private final LongAdder inputs = new LongAdder();
+    private final LongAdder outputs = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+
+    public PositionPipeline() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PositionPipeline(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Receives positions owned by the calling worker. The same instance is reused and overwritten for
+     * later inputs, so copy it (or take its FEN or hash) before keeping anything past the call.
+     */
+    public interface Sink {
+        void accept(Position position);
+    }
+
+    public interface Stage {
+        void process(Position position, Sink downstream);
+
+        default void startChunk(long chunk) {
+        }
+    }
+
+    public PositionPipeline then(Supplier<Stage> stage) {
+        stages.add(stage);
+        return this;
+    }
+
+    public PositionPipeline filter(Predicate<Position> predicate) {
+        return then(() -> (position, downstream) -> {
+            if (predicate.test(position)) {
+                downstream.accept(position);
+            }
+        });
+    }
+
+    public PositionPipeline notInCheck() {
+        return filter(position -> !MoveGenerator.isInCheck(position));
+    }
+
+    public PositionPipeline quiet() {
+        return then(() -> {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            return (position, downstream) -> {
+                if (isQuiet(position, moves)) {
+                    downstream.accept(position);
+                }
+            };
+        });
+    }
+
+    public PositionPipeline material(int min, int max) {
+        return filter(position -> {
+            int material = material(position);
+            return material >= min && material <= max;
+        });
+    }
+
+    public PositionPipeline sample(double rate, long seed) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Sample rate must be within [0, 1]: " + rate);
+        }
+        return then(() -> new Stage() {
+            private SplittableRandom random = new SplittableRandom(seed).split();
+
+            @Override
+            public void startChunk(long chunk) {
+                random = new SplittableRandom(seed + chunk).split();
+            }
+
+            @Override
+            public void process(Position position, Sink downstream) {
+                if (random.nextDouble() < rate) {
+                    downstream.accept(position);
+                }
+            }
+        });
+    }
+
+    public PositionPipeline colourFlips() {
+        return then(() -> {
+            Position flipped = new Position();
+            return (position, downstream) -> {
+                downstream.accept(position);
+                PositionSymmetry.flip(position, flipped);
+                downstream.accept(flipped);
+            };
+        });
+    }
+
+    public PositionPipeline fileMirrors() {
+        return then(() -> {
+            Position mirrored = new Position();
+            return (position, downstream) -> {
+                downstream.accept(position);
+                if (position.getCastling() == 0) {
+                    PositionSymmetry.mirrorFiles(position, mirrored);
+                    downstream.accept(mirrored);
+                }
+            };
+        });
+    }
+
+    public void processFens(Stream<String> fens, Sink sink) {
+        ThreadLocal<Position> positions = ThreadLocal.withInitial(Position::new);
+        processChunks(fens.filter(fen -> !fen.isBlank()).iterator(), CHUNK_SIZE, sink, (fen, head) -> {
+            Position position = positions.get();
+            try {
+                position.loadFen(fen);
+            } catch (InvalidDataException | RuntimeException e) {
+                invalid.increment();
+                return;
+            }
+            inputs.increment();
+            head.accept(position);
+        });
+    }
+
+    public void processFenFile(Path file, Sink sink) throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            processFens(lines, sink);
+        }
+    }
+
+    public void processBoards(Stream<Board> boards, Sink sink) {
+        processChunks(boards.iterator(), CHUNK_SIZE, sink, (board, head) -> {
+            inputs.increment();
+            head.accept(Position.of(board));
+        });
+    }
+
+    public void processPgnFiles(List<Path> files, Sink sink) {
+        processChunks(files.iterator(), 1, sink, (file, head) -> {
+            PgnReader reader = new PgnReader((ply, move, position) -> {
+                inputs.increment();
+                head.accept(position);
+            });
+            try {
+                reader.read(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public long getInputCount() {
+        return inputs.sum();
+    }
+
+    public long getOutputCount() {
+        return outputs.sum();
+    }
+
+    public long getInvalidCount() {
+        return invalid.sum();
+    }
+
+    private <T> void processChunks(Iterator<T> items, int chunkSize, Sink sink, BiConsumer<T, Head> handler) {
+        ThreadLocal<Head> heads = ThreadLocal.withInitial(() -> chain(sink));
+        ArrayDeque<ForkJoinTask<?>> pending = new ArrayDeque<>();
+        int maxPending = pool.getParallelism() * 2;
+        long chunk = 0;
+        while (items.hasNext()) {
+            List<T> batch = new ArrayList<>(chunkSize);
+            while (batch.size() < chunkSize && items.hasNext()) {
+                batch.add(items.next());
+            }
+            long index = chunk++;
+            if (pending.size() >= maxPending) {
+                pending.poll().join();
+            }
+            pending.add(pool.submit(() -> {
+                Head head = heads.get();
+                head.startChunk(index);
+                for (T item : batch) {
+                    handler.accept(item, head);
+                }
+            }));
+        }
+        while (!pending.isEmpty()) {
+            pending.poll().join();
+        }
+    }
+
+    private Head chain(Sink sink) {
+        List<Stage> chunkStages = new ArrayList<>();
+        Sink downstream = position -> {
+            outputs.increment();
+            sink.accept(position);
+        };
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            Stage stage = stages.get(i).get();
+            chunkStages.add(stage);
+            Sink next = downstream;
+            downstream = position -> stage.process(position, next);
+        }
+        return new Head(downstream, chunkStages);
+    }
+
+    static int material(Position position) {
+        int material = 0;
+        for (byte code : position.squares()) {
+            material += MATERIAL_VALUES[PieceCode.type(code)];
+        }
+        return material;
+    }
+
+    static boolean isQuiet(Position position, int[] moves) {
+        if (MoveGenerator.isInCheck(position)) {
+            return false;
+        }
+        boolean white = position.isWhiteToMove();
+        int count = MoveGenerator.legalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Move.promotion(move) != 0) {
+                return false;
+            }
+            if (!MoveGenerator.isCapture(position, move)) {
+                continue;
+            }
+            int victim = position.piece(Move.to(move));
+            int victimValue = victim == PieceCode.EMPTY ? 1 : MATERIAL_VALUES[PieceCode.type(victim)];
+            int attacker = PieceCode.type(position.piece(Move.from(move)));
+            int attackerValue = attacker == PieceCode.KING ? KING_VALUE : MATERIAL_VALUES[attacker];
+            if (victimValue > attackerValue || !MoveGenerator.isAttacked(position, Move.to(move), !white)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Head implements Sink {
+        private final Sink first;
+        private final List<Stage> stages;
+
+        Head(Sink first, List<Stage> stages) {
+            this.first = first;
+            this.stages = stages;
+        }
+
+        void startChunk(long chunk) {
+            for (Stage stage : stages) {
+                stage.startChunk(chunk);
+            }
+        }
+
+        @Override
+        public void accept(Position position) {
+            first.accept(position);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.chess.spring.game;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public final class PositionPipelineCheck {
+    private PositionPipelineCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> fens = new ArrayList<>();
+        collect(Position.fromFen(Position.START_FEN), 3, fens);
+        fens.add(100, "not a fen");
+        fens.add(5000, "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1");
+        fens.add("");
+
+        List<String> first = sample(fens, 4);
+        List<String> second = sample(fens, 3);
+        check(first.equals(second), "Seeded sampling differs between runs");
+        check(!first.isEmpty() && first.size() < fens.size() / 2, "Unexpected sample size " + first.size());
+
+        PositionPipeline pipeline = new PositionPipeline(new ForkJoinPool(2));
+        pipeline.processFens(fens.stream(), position -> {
+        });
+        check(pipeline.getInvalidCount() == 2, "Invalid lines counted " + pipeline.getInvalidCount());
+        check(pipeline.getInputCount() == fens.size() - 3, "Inputs counted " + pipeline.getInputCount());
+        System.out.println("PositionPipeline: ok");
+    }
+
+    private static List<String> sample(List<String> fens, int threads) {
+        List<String> sampled = Collections.synchronizedList(new ArrayList<>());
+        new PositionPipeline(new ForkJoinPool(threads)).sample(0.3, 42)
+                .processFens(fens.stream(), position -> sampled.add(position.toFen()));
+        Collections.sort(sampled);
+        return sampled;
+    }
+
+    private static void collect(Position position, int depth, List<String> fens) {
+        if (depth == 0) {
+            fens.add(position.toFen());
+            return;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.legalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            collect(position, depth - 1, fens);
+            position.unmakeMove(moves[i]);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+public final class PositionSymmetry {
+    private static final ThreadLocal<byte[]> SCRATCH =
+            ThreadLocal.withInitial(() -> new byte[BoardConfiguration.TILES_MAX]);
+
+    private PositionSymmetry() {
+    }
+
+    public static int flipSquare(int square) {
+        return square < 0 ? square : square ^ 56;
+    }
+
+    public static int flipPiece(int code) {
+        return code == PieceCode.EMPTY ? code : code ^ PieceCode.BLACK;
+    }
+
+    public static int flipCastling(int mask) {
+        return ((mask & 3) << 2) | ((mask >>> 2) & 3);
+    }
+
+    public static int flipMove(int move) {
+        return Move.of(Move.from(move) ^ 56, Move.to(move) ^ 56, Move.promotion(move));
+    }
+
+    public static void flip(Position source, Position target) {
+        if (source == target) {
+            throw new IllegalArgumentException("Cannot flip a position onto itself");
+        }
+        target.clear();
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = source.piece(square);
+            if (code != PieceCode.EMPTY) {
+                target.put(square ^ 56, code ^ PieceCode.BLACK);
+            }
+        }
+        target.setState(!source.isWhiteToMove(), flipCastling(source.getCastling()),
+                flipSquare(source.getEnPassant()), source.getHalfmoveClock(), source.getFullmoveNumber());
+    }
+
+    public static void mirrorFiles(Position source, Position target) {
+        if (source == target) {
+            throw new IllegalArgumentException("Cannot mirror a position onto itself");
+        }
+        if (source.getCastling() != 0) {
+            throw new IllegalArgumentException("Cannot mirror a position with castling rights " + source.toFen());
+        }
+        target.clear();
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = source.piece(square);
+            if (code != PieceCode.EMPTY) {
+                target.put(square ^ 7, code);
+            }
+        }
+        int enPassant = source.getEnPassant();
+        target.setState(source.isWhiteToMove(), 0, enPassant < 0 ? enPassant : enPassant ^ 7,
+                source.getHalfmoveClock(), source.getFullmoveNumber());
+    }
+
+    public static Board flip(Board board) {
+        Position flipped = new Position();
+        flip(Position.of(board), flipped);
+        return flipped.toBoard();
+    }
+
+    public static String flip(String fen) throws InvalidDataException {
+        Position flipped = new Position();
+        flip(Position.fromFen(fen), flipped);
+        return flipped.toFen();
+    }
+
+    public static void flip(byte[] in, int inOffset, byte[] out, int outOffset) {
+        if (in == out && Math.abs(inOffset - outOffset) < PositionCodec.BYTES) {
+            throw new IllegalArgumentException("Cannot flip an encoding onto itself");
+        }
+        long occupancy = PositionCodec.getLong(in, inOffset);
+        for (int i = outOffset + PositionCodec.NIBBLES_OFFSET; i < outOffset + PositionCodec.FLAGS_OFFSET; i++) {
+            out[i] = 0;
+        }
+        int written = 0;
+        int rankEnd = Long.bitCount(occupancy);
+        for (int rank = 7; rank >= 0; rank--) {
+            int rankStart = rankEnd - Long.bitCount(occupancy & (0xFFL << (rank * 8)));
+            for (int piece = rankStart; piece < rankEnd; piece++) {
+                int packed = in[inOffset + PositionCodec.NIBBLES_OFFSET + (piece >> 1)];
+                int code = ((piece & 1) == 0 ? (packed >>> 4) : packed) & 15;
+                code ^= PieceCode.BLACK;
+                out[outOffset + PositionCodec.NIBBLES_OFFSET + (written >> 1)] |=
+                        (byte) ((written & 1) == 0 ? code << 4 : code);
+                written++;
+            }
+            rankEnd = rankStart;
+        }
+        PositionCodec.putLong(out, outOffset, Long.reverseBytes(occupancy));
+        int flags = in[inOffset + PositionCodec.FLAGS_OFFSET];
+        out[outOffset + PositionCodec.FLAGS_OFFSET] = (byte) ((~flags & 1) | (flipCastling((flags >>> 1) & 15) << 1));
+        int enPassant = in[inOffset + PositionCodec.EN_PASSANT_OFFSET] & 0xFF;
+        out[outOffset + PositionCodec.EN_PASSANT_OFFSET] =
+                (byte) (enPassant == PositionCodec.NO_EN_PASSANT ? enPassant : enPassant ^ 56);
+        System.arraycopy(in, inOffset + PositionCodec.EN_PASSANT_OFFSET + 1,
+                out, outOffset + PositionCodec.EN_PASSANT_OFFSET + 1,
+                PositionCodec.BYTES - PositionCodec.EN_PASSANT_OFFSET - 1);
+    }
+
+    public static boolean isCanonical(Position position) {
+        return position.isWhiteToMove();
+    }
+
+    public static boolean isCanonical(byte[] in, int offset) {
+        return (in[offset + PositionCodec.FLAGS_OFFSET] & 1) == 0;
+    }
+
+    public static boolean canonicalize(Position source, Position target) {
+        if (isCanonical(source)) {
+            target.copyFrom(source);
+            return false;
+        }
+        flip(source, target);
+        return true;
+    }
+
+    public static boolean canonicalize(byte[] in, int inOffset, byte[] out, int outOffset) {
+        if (isCanonical(in, inOffset)) {
+            System.arraycopy(in, inOffset, out, outOffset, PositionCodec.BYTES);
+            return false;
+        }
+        flip(in, inOffset, out, outOffset);
+        return true;
+    }
+
+    public static long canonicalHash(String fen) throws InvalidDataException {
+        return canonicalHash(FenService.parse(fen));
+    }
+
+    public static long canonicalHash(Board board) {
+        if (FenService.isWhiteToMove(board)) {
+            return ZobristHash.hash(board);
+        }
+        return flippedHash(TablebaseIndex.squares(board, SCRATCH.get()), FenService.castlingMask(board),
+                FenService.enPassantSquare(board));
+    }
+
+    public static long canonicalHash(Position position) {
+        if (position.isWhiteToMove()) {
+            return position.hash();
+        }
+        return flippedHash(position.squares(), position.getCastling(), position.getEnPassant());
+    }
+
+    private static long flippedHash(byte[] squares, int castling, int enPassant) {
+        long hash = 0;
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = squares[square];
+            if (code != PieceCode.EMPTY) {
+                hash ^= ZobristHash.piece(code ^ PieceCode.BLACK, square ^ 56);
+            }
+        }
+        return hash ^ ZobristHash.castling(flipCastling(castling)) ^ ZobristHash.enPassant(flipSquare(enPassant));
+    }
+}
@@ -0,0 +1,91 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+public class RepetitionHistory {
+    private static final int DEFAULT_CAPACITY = 128;
+
+    private final long[] hashes;
+    private final int[] halfmoveClocks;
+    private final int mask;
+    private int size;
+
+    public RepetitionHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RepetitionHistory(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.hashes = new long[slots];
+        this.halfmoveClocks = new int[slots];
+        this.mask = slots - 1;
+    }
+
+    public void push(Position position) {
+        push(position.hash(), position.getHalfmoveClock());
+    }
+
+    public void push(Board board, int halfmoveClock) {
+        push(ZobristHash.hash(board), halfmoveClock);
+    }
+
+    public void push(long hash, int halfmoveClock) {
+        hashes[size & mask] = hash;
+        halfmoveClocks[size & mask] = halfmoveClock;
+        size++;
+    }
+
+    public void pop() {
+        if (size == 0) {
+            throw new IllegalStateException("History is empty");
+        }
+        size--;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count(long hash, int halfmoveClock) {
+        int count = 0;
+        int reachable = Math.min(Math.min(halfmoveClock, size), hashes.length);
+        for (int back = 2; back <= reachable; back += 2) {
+            if (hashes[(size - back) & mask] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int repetitions() {
+        if (size == 0) {
+            return 0;
+        }
+        int last = (size - 1) & mask;
+        long hash = hashes[last];
+        int reachable = Math.min(Math.min(halfmoveClocks[last], size - 1), hashes.length - 1);
+        int count = 0;
+        for (int back = 2; back <= reachable; back += 2) {
+            if (hashes[(size - 1 - back) & mask] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isRepetition() {
+        return repetitions() > 0;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return repetitions() >= 2;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return size > 0 && halfmoveClocks[(size - 1) & mask] >= 100;
+    }
+}
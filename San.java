@@ -0,0 +1,149 @@
+package com.chess.spring.game;
+
+public final class San {
+    private San() {
+    }
+
+    public static int parse(Position position, CharSequence san, int[] moves) {
+        int length = san.length();
+        while (length > 0 && isSuffix(san.charAt(length - 1))) {
+            length--;
+        }
+        if (length < 2) {
+            return Move.NONE;
+        }
+        int count = MoveGenerator.pseudoLegalMoves(position, moves);
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            boolean queenSide = length >= 5;
+            int king = position.kingSquare(position.isWhiteToMove());
+            int to = queenSide ? king - 2 : king + 2;
+            return find(position, moves, count, PieceCode.KING, to, 0, -1, -1, king);
+        }
+        int type = PieceCode.PAWN;
+        int start = 0;
+        if (first >= 'A' && first <= 'Z') {
+            if ("NBRQK".indexOf(first) < 0) {
+                return Move.NONE;
+            }
+            type = PieceCode.type(PieceCode.of(first));
+            start = 1;
+        }
+        int promotion = 0;
+        int end = length;
+        char last = san.charAt(end - 1);
+        if (type == PieceCode.PAWN && (last == 'Q' || last == 'R' || last == 'B' || last == 'N')) {
+            promotion = PieceCode.type(PieceCode.of(last));
+            end--;
+            if (end > 0 && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+        int toFile = san.charAt(end - 2) - 'a';
+        int toRank = san.charAt(end - 1) - '1';
+        if (toFile < 0 || toFile > 7 || toRank < 0 || toRank > 7) {
+            return Move.NONE;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            }
+        }
+        return find(position, moves, count, type, (7 - toRank) * 8 + toFile, promotion, fromFile, fromRank, -1);
+    }
+
+    public static String format(Position position, int move, int[] moves) {
+        StringBuilder builder = new StringBuilder(8);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = PieceCode.type(position.piece(from));
+        if (type == PieceCode.KING && (to - from == 2 || from - to == 2)) {
+            builder.append(to > from ? "O-O" : "O-O-O");
+        } else {
+            boolean capture = MoveGenerator.isCapture(position, move);
+            if (type == PieceCode.PAWN) {
+                if (capture) {
+                    builder.append(FenTokens.file(from));
+                }
+            } else {
+                builder.append(PieceCode.toChar(type));
+                appendDisambiguation(position, move, type, moves, builder);
+            }
+            if (capture) {
+                builder.append('x');
+            }
+            builder.append(FenTokens.square(to));
+            if (Move.promotion(move) != 0) {
+                builder.append('=').append(PieceCode.toChar(Move.promotion(move)));
+            }
+        }
+        position.makeMove(move);
+        if (MoveGenerator.isInCheck(position)) {
+            builder.append(MoveGenerator.hasLegalMove(position, moves) ? '+' : '#');
+        }
+        position.unmakeMove(move);
+        return builder.toString();
+    }
+
+    private static void appendDisambiguation(Position position, int move, int type, int[] moves,
+                                             StringBuilder builder) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int count = MoveGenerator.legalMoves(position, moves);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int other = Move.from(moves[i]);
+            if (other != from && Move.to(moves[i]) == to && PieceCode.type(position.piece(other)) == type) {
+                ambiguous = true;
+                sameFile |= (other & 7) == (from & 7);
+                sameRank |= (other >> 3) == (from >> 3);
+            }
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            builder.append(FenTokens.file(from));
+        } else if (!sameRank) {
+            builder.append(FenTokens.rank(from));
+        } else {
+            builder.append(FenTokens.square(from));
+        }
+    }
+
+    private static int find(Position position, int[] moves, int count, int type, int to, int promotion,
+                            int fromFile, int fromRank, int fromSquare) {
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.promotion(move) != promotion ||
+                    PieceCode.type(position.piece(from)) != type ||
+                    (fromSquare >= 0 && from != fromSquare) ||
+                    (fromFile >= 0 && (from & 7) != fromFile) ||
+                    (fromRank >= 0 && 7 - (from >> 3) != fromRank) ||
+                    !MoveGenerator.isLegal(position, move)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
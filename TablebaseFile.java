@@ -0,0 +1,164 @@
+package com.chess.spring.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongToIntFunction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class TablebaseFile implements AutoCloseable {
+    public static final String WDL_EXTENSION = ".wdl";
+    public static final String DTZ_EXTENSION = ".dtz";
+
+    private static final int MAGIC = 0x54424C31;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int DEFAULT_BLOCK_ENTRIES = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int valueBytes;
+    private final int blockEntries;
+    private final int blockCount;
+    private final long entries;
+
+    private TablebaseFile(FileChannel channel, MappedByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Invalid tablebase header");
+        }
+        this.valueBytes = buffer.getInt(8);
+        this.blockEntries = buffer.getInt(12);
+        this.blockCount = buffer.getInt(16);
+        this.entries = buffer.getLong(24);
+    }
+
+    public static TablebaseFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tablebase too large to map: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new TablebaseFile(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static void write(Path file, int valueBytes, long entries, LongToIntFunction values) throws IOException {
+        write(file, valueBytes, entries, DEFAULT_BLOCK_ENTRIES, values);
+    }
+
+    public static void write(Path file, int valueBytes, long entries, int blockEntries, LongToIntFunction values)
+            throws IOException {
+        if (valueBytes != 1 && valueBytes != 2) {
+            throw new IllegalArgumentException("Values must be one or two bytes wide: " + valueBytes);
+        }
+        long blocks = (entries + blockEntries - 1) / blockEntries;
+        long dataStart = HEADER_BYTES + 8L * (blocks + 1);
+        if (dataStart > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many tablebase entries to index: " + entries);
+        }
+        int blockCount = (int) blocks;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate((int) dataStart).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(valueBytes).putInt(blockEntries).putInt(blockCount)
+                    .putInt(0).putLong(entries);
+            ByteBuffer raw = ByteBuffer.allocate(blockEntries * valueBytes).order(ByteOrder.LITTLE_ENDIAN);
+            byte[] compressed = new byte[raw.capacity() + 1024];
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            long offset = dataStart;
+            channel.position(dataStart);
+            for (int block = 0; block < blockCount; block++) {
+                header.putLong(HEADER_BYTES + 8 * block, offset);
+                raw.clear();
+                long first = (long) block * blockEntries;
+                long last = Math.min(entries, first + blockEntries);
+                for (long index = first; index < last; index++) {
+                    if (valueBytes == 1) {
+                        raw.put((byte) values.applyAsInt(index));
+                    } else {
+                        raw.putShort((short) values.applyAsInt(index));
+                    }
+                }
+                deflater.reset();
+                deflater.setInput(raw.array(), 0, raw.position());
+                deflater.finish();
+                int length = deflater.deflate(compressed);
+                channel.write(ByteBuffer.wrap(compressed, 0, length));
+                offset += length;
+            }
+            deflater.end();
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Tablebase exceeds the mappable size: " + file);
+            }
+            header.putLong(HEADER_BYTES + 8 * blockCount, offset);
+            header.position(0);
+            channel.write(header, 0);
+        }
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public int getBlockEntries() {
+        return blockEntries;
+    }
+
+    public int getValueBytes() {
+        return valueBytes;
+    }
+
+    public byte[] readBlock(int block, Inflater inflater) throws IOException {
+        if (block < 0 || block >= blockCount) {
+            throw new IOException("Block out of range: " + block);
+        }
+        long start = buffer.getLong(HEADER_BYTES + 8 * block);
+        long end = buffer.getLong(HEADER_BYTES + 8 * (block + 1));
+        ByteBuffer compressed = buffer.duplicate();
+        compressed.position((int) start).limit((int) end);
+        byte[] input = new byte[(int) (end - start)];
+        compressed.get(input);
+        byte[] output = new byte[blockEntries * valueBytes];
+        inflater.reset();
+        inflater.setInput(input);
+        try {
+            int length = 0;
+            while (!inflater.finished() && length < output.length) {
+                int read = inflater.inflate(output, length, output.length - length);
+                if (read == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt tablebase block " + block, e);
+        }
+        return output;
+    }
+
+    public int value(byte[] block, long index) {
+        int position = (int) (index % blockEntries);
+        if (valueBytes == 1) {
+            return block[position];
+        }
+        return (short) ((block[2 * position] & 0xFF) | (block[2 * position + 1] << 8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
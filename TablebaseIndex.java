@@ -0,0 +1,148 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.util.Arrays;
+
+public final class TablebaseIndex {
+    public static final int MAX_PIECES = 5;
+
+    private static final int[] TYPE_ORDER = {
+            PieceCode.KING, PieceCode.QUEEN, PieceCode.ROOK, PieceCode.BISHOP, PieceCode.KNIGHT, PieceCode.PAWN
+    };
+    private static final int[] TYPE_RANKS = {0, 5, 4, 3, 2, 1, 0};
+    private static final int[] TYPE_VALUES = {0, 1, 3, 3, 5, 9, 0};
+
+    private TablebaseIndex() {
+    }
+
+    public static byte[] squares(Board board, byte[] scratch) {
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            scratch[i] = (byte) PieceCode.of(board.getPiece(i));
+        }
+        return scratch;
+    }
+
+    public static int pieceCount(byte[] squares) {
+        int count = 0;
+        for (byte code : squares) {
+            if (code != PieceCode.EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static long entries(int pieceCount) {
+        return 2L << (6 * pieceCount);
+    }
+
+    public static boolean isMirrored(byte[] squares) {
+        int white = 0;
+        int black = 0;
+        for (byte code : squares) {
+            if (PieceCode.isWhite(code)) {
+                white += 16 * TYPE_VALUES[PieceCode.type(code)] + 1;
+            } else if (PieceCode.isBlack(code)) {
+                black += 16 * TYPE_VALUES[PieceCode.type(code)] + 1;
+            }
+        }
+        if (white != black) {
+            return white < black;
+        }
+        return signatureSide(squares, PieceCode.BLACK).compareTo(signatureSide(squares, 0)) > 0;
+    }
+
+    public static String signature(byte[] squares) {
+        boolean mirrored = isMirrored(squares);
+        int strong = mirrored ? PieceCode.BLACK : 0;
+        return signatureSide(squares, strong) + "v" + signatureSide(squares, strong ^ PieceCode.BLACK);
+    }
+
+    public static long index(byte[] squares, boolean whiteToMove) {
+        return index(squares, whiteToMove, new int[BoardConfiguration.TILES_MAX]);
+    }
+
+    public static long index(byte[] squares, boolean whiteToMove, int[] keys) {
+        boolean mirrored = isMirrored(squares);
+        int strong = mirrored ? PieceCode.BLACK : 0;
+        int count = 0;
+        for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+            int code = squares[mirrored ? square ^ 56 : square];
+            if (code == PieceCode.EMPTY) {
+                continue;
+            }
+            int rank = ((code & PieceCode.BLACK) == strong ? 0 : 6) + TYPE_RANKS[PieceCode.type(code)];
+            int key = (rank << 6) | square;
+            int slot = count++;
+            while (slot > 0 && keys[slot - 1] > key) {
+                keys[slot] = keys[slot - 1];
+                slot--;
+            }
+            keys[slot] = key;
+        }
+        long index = whiteToMove != mirrored ? 0 : 1;
+        for (int i = 0; i < count; i++) {
+            index = (index << 6) | (keys[i] & 63);
+        }
+        return index;
+    }
+
+    public static int[] pieceOrder(String signature) {
+        int separator = signature.indexOf('v');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid material signature " + signature);
+        }
+        int[] codes = new int[signature.length() - 1];
+        int count = 0;
+        for (int colour : new int[]{0, PieceCode.BLACK}) {
+            String side = colour == 0 ? signature.substring(0, separator) : signature.substring(separator + 1);
+            for (int type : TYPE_ORDER) {
+                for (int i = 0; i < side.length(); i++) {
+                    if (PieceCode.type(PieceCode.of(side.charAt(i))) == type) {
+                        codes[count++] = type | colour;
+                    }
+                }
+            }
+        }
+        return codes;
+    }
+
+    public static boolean decode(long index, int[] codes, byte[] squares) {
+        Arrays.fill(squares, (byte) PieceCode.EMPTY);
+        int previous = -1;
+        for (int i = 0; i < codes.length; i++) {
+            int square = (int) (index >>> (6 * (codes.length - 1 - i))) & 63;
+            if (squares[square] != PieceCode.EMPTY) {
+                return false;
+            }
+            if (i > 0 && codes[i] == codes[i - 1] && square < previous) {
+                return false;
+            }
+            if (PieceCode.type(codes[i]) == PieceCode.PAWN && (square < 8 || square >= 56)) {
+                return false;
+            }
+            squares[square] = (byte) codes[i];
+            previous = square;
+        }
+        return true;
+    }
+
+    public static boolean isWhiteToMove(long index, int pieceCount) {
+        return (index >>> (6 * pieceCount)) == 0;
+    }
+
+    private static String signatureSide(byte[] squares, int colour) {
+        StringBuilder builder = new StringBuilder();
+        for (int type : TYPE_ORDER) {
+            int code = type | colour;
+            for (byte square : squares) {
+                if (square == code) {
+                    builder.append(PieceCode.toChar(type));
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Inflater;
+
+public class TablebaseProber implements AutoCloseable {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int WDL_LOSS = -2;
+    public static final int WDL_BLESSED_LOSS = -1;
+    public static final int WDL_DRAW = 0;
+    public static final int WDL_CURSED_WIN = 1;
+    public static final int WDL_WIN = 2;
+
+    private final Path directory;
+    private final Map<String, Optional<TablebaseFile>> files = new ConcurrentHashMap<>();
+    private final Map<BlockKey, byte[]> blocks;
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[BoardConfiguration.TILES_MAX]);
+
+    public TablebaseProber(Path directory, int maxCachedBlocks) {
+        this.directory = directory;
+        this.blocks = new LinkedHashMap<BlockKey, byte[]>(maxCachedBlocks, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BlockKey, byte[]> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+
+    public int probeWdl(String fen) throws InvalidDataException {
+        return probeWdl(FenService.parse(fen));
+    }
+
+    public int probeWdl(Board board) {
+        return probe(board, TablebaseFile.WDL_EXTENSION);
+    }
+
+    public int probeDtz(Board board) {
+        return probe(board, TablebaseFile.DTZ_EXTENSION);
+    }
+
+    public int probe(byte[] squares, boolean whiteToMove, String extension) {
+        if (TablebaseIndex.pieceCount(squares) > TablebaseIndex.MAX_PIECES) {
+            return UNKNOWN;
+        }
+        String name = TablebaseIndex.signature(squares) + extension;
+        TablebaseFile file = files.computeIfAbsent(name, this::open).orElse(null);
+        if (file == null) {
+            return UNKNOWN;
+        }
+        long index = TablebaseIndex.index(squares, whiteToMove);
+        if (index >= file.getEntries()) {
+            return UNKNOWN;
+        }
+        int block = (int) (index / file.getBlockEntries());
+        return file.value(block(name, file, block), index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Optional<TablebaseFile> file : files.values()) {
+            if (file.isPresent()) {
+                file.get().close();
+            }
+        }
+        files.clear();
+        synchronized (blocks) {
+            blocks.clear();
+        }
+    }
+
+    private int probe(Board board, String extension) {
+        byte[] squares = TablebaseIndex.squares(board, scratch.get());
+        return probe(squares, FenService.isWhiteToMove(board), extension);
+    }
+
+    private byte[] block(String name, TablebaseFile file, int block) {
+        BlockKey key = new BlockKey(name, block);
+        synchronized (blocks) {
+            byte[] cached = blocks.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] values;
+        Inflater inflater = new Inflater();
+        try {
+            values = file.readBlock(block, inflater);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+        synchronized (blocks) {
+            blocks.put(key, values);
+        }
+        return values;
+    }
+
+    private Optional<TablebaseFile> open(String name) {
+        Path file = directory.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(TablebaseFile.open(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open tablebase " + file, e);
+        }
+    }
+
+    private static class BlockKey {
+        private final String name;
+        private final int block;
+
+        BlockKey(String name, int block) {
+            this.name = name;
+            this.block = block;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BlockKey)) {
+                return false;
+            }
+            BlockKey key = (BlockKey) other;
+            return block == key.block && name.equals(key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + block;
+        }
+    }
+}
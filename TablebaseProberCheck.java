@@ -0,0 +1,62 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class TablebaseProberCheck {
+    private static final String SIGNATURE = "KQvK";
+
+    private TablebaseProberCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Bitbase bitbase = new BitbaseGenerator().generate(SIGNATURE);
+        int pieceCount = bitbase.getPieceCount();
+        long entries = TablebaseIndex.entries(pieceCount);
+        Path directory = Files.createTempDirectory("tablebase");
+        TablebaseFile.write(directory.resolve(SIGNATURE + TablebaseFile.WDL_EXTENSION), 1, entries, index ->
+                !bitbase.isWin(index) ? TablebaseProber.WDL_DRAW :
+                        TablebaseIndex.isWhiteToMove(index, pieceCount) ? TablebaseProber.WDL_WIN :
+                                TablebaseProber.WDL_LOSS);
+        try (TablebaseProber prober = new TablebaseProber(directory, 64)) {
+            int[] codes = TablebaseIndex.pieceOrder(SIGNATURE);
+            byte[] squares = new byte[BoardConfiguration.TILES_MAX];
+            long probed = 0;
+            for (long index = 0; index < entries; index++) {
+                if (!TablebaseIndex.decode(index, codes, squares)) {
+                    continue;
+                }
+                boolean whiteToMove = TablebaseIndex.isWhiteToMove(index, pieceCount);
+                int expected = bitbase.probe(squares, whiteToMove);
+                int actual = prober.probe(squares, whiteToMove, TablebaseFile.WDL_EXTENSION);
+                check(actual == expected, "Index " + index + " probed " + actual + ", expected " + expected);
+                probed++;
+            }
+            check(probe(prober, "8/8/8/3k4/8/8/8/4K1Q1 w - - 0 1") == TablebaseProber.WDL_WIN, "KQvK should win");
+            check(probe(prober, "8/8/8/3k4/8/8/8/4K1Q1 b - - 0 1") == TablebaseProber.WDL_LOSS, "KQvK should lose");
+            check(probe(prober, "8/8/8/8/8/8/3kQ3/7K b - - 0 1") == TablebaseProber.WDL_DRAW,
+                    "Hanging queen should draw");
+            check(probe(prober, "8/8/8/8/8/8/3kQ3/7K b - - 0 1") == TablebaseProber.WDL_DRAW,
+                    "Cached block should probe the same");
+            check(prober.probe(Position.start().squares(), true, TablebaseFile.WDL_EXTENSION) ==
+                    TablebaseProber.UNKNOWN, "Start position is not in the tablebase");
+            System.out.println("TablebaseProber: ok, " + probed + " positions");
+        } finally {
+            Files.delete(directory.resolve(SIGNATURE + TablebaseFile.WDL_EXTENSION));
+            Files.delete(directory);
+        }
+    }
+
+    private static int probe(TablebaseProber prober, String fen) throws Exception {
+        Position position = Position.fromFen(fen);
+        return prober.probe(position.squares(), position.isWhiteToMove(), TablebaseFile.WDL_EXTENSION);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
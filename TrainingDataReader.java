@@ -0,0 +1,92 @@
+package com.chess.spring.game;
+
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TrainingDataReader {
+    private static final int RECORDS_PER_REGION = Integer.MAX_VALUE / TrainingDataWriter.RECORD_BYTES;
+
+    private final MappedByteBuffer[] regions;
+    private final long records;
+    private final ThreadLocal<byte[]> scratch =
+            ThreadLocal.withInitial(() -> new byte[TrainingDataWriter.RECORD_BYTES]);
+
+    private TrainingDataReader(MappedByteBuffer[] regions, long records) {
+        this.regions = regions;
+        this.records = records;
+    }
+
+    public static TrainingDataReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TrainingDataWriter.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != TrainingDataWriter.MAGIC || header.getInt(4) != TrainingDataWriter.VERSION) {
+                throw new IOException("Invalid training data file " + file);
+            }
+            long records = header.getLong(8);
+            if (TrainingDataWriter.HEADER_BYTES + records * TrainingDataWriter.RECORD_BYTES != channel.size()) {
+                throw new IOException("Truncated training data file " + file);
+            }
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((records + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION)];
+            for (int i = 0; i < regions.length; i++) {
+                long first = (long) i * RECORDS_PER_REGION;
+                long count = Math.min(RECORDS_PER_REGION, records - first);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        TrainingDataWriter.HEADER_BYTES + first * TrainingDataWriter.RECORD_BYTES,
+                        count * TrainingDataWriter.RECORD_BYTES);
+            }
+            return new TrainingDataReader(regions, records);
+        }
+    }
+
+    public long size() {
+        return records;
+    }
+
+    public void read(long record, Position position) {
+        PositionCodec.decode(bytes(record), 0, position);
+    }
+
+    public void copy(long record, byte[] out, int offset) {
+        MappedByteBuffer region = regions[(int) (record / RECORDS_PER_REGION)];
+        int position = (int) (record % RECORDS_PER_REGION) * TrainingDataWriter.RECORD_BYTES;
+        region.duplicate().position(position).get(out, offset, TrainingDataWriter.RECORD_BYTES);
+    }
+
+    public int score(long record) {
+        MappedByteBuffer region = regions[(int) (record / RECORDS_PER_REGION)];
+        int position = (int) (record % RECORDS_PER_REGION) * TrainingDataWriter.RECORD_BYTES;
+        return (short) (((region.get(position + TrainingDataWriter.SCORE_OFFSET) & 0xFF) << 8) |
+                (region.get(position + TrainingDataWriter.SCORE_OFFSET + 1) & 0xFF));
+    }
+
+    public int result(long record) {
+        MappedByteBuffer region = regions[(int) (record / RECORDS_PER_REGION)];
+        int position = (int) (record % RECORDS_PER_REGION) * TrainingDataWriter.RECORD_BYTES;
+        return region.get(position + TrainingDataWriter.RESULT_OFFSET);
+    }
+
+    public String fen(long record) {
+        Position position = new Position();
+        read(record, position);
+        return position.toFen();
+    }
+
+    public Board board(long record) {
+        Position position = new Position();
+        read(record, position);
+        return position.toBoard();
+    }
+
+    private byte[] bytes(long record) {
+        byte[] bytes = scratch.get();
+        copy(record, bytes, 0);
+        return bytes;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+public class TrainingDataWriter implements AutoCloseable {
+    public static final int MAGIC = 0x54524E44;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 36;
+    public static final int SCORE_OFFSET = PositionCodec.BYTES;
+    public static final int RESULT_OFFSET = SCORE_OFFSET + 2;
+
+    private static final int DEFAULT_CHUNK_RECORDS = 4096;
+
+    private final Path file;
+    private final Path temporary;
+    private final FileChannel channel;
+    private final SplittableRandom random;
+    private final byte[] chunk;
+    private final byte[] swap = new byte[RECORD_BYTES];
+    private final ByteBuffer output;
+    private final Position scratch = new Position();
+    private int buffered;
+    private long records;
+
+    public TrainingDataWriter(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_RECORDS, null);
+    }
+
+    public TrainingDataWriter(Path file, int shuffleChunkRecords, long seed) throws IOException {
+        this(file, shuffleChunkRecords, new SplittableRandom(seed));
+    }
+
+    private TrainingDataWriter(Path file, int chunkRecords, SplittableRandom random) throws IOException {
+        if (chunkRecords <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkRecords);
+        }
+        this.file = file;
+        this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        this.random = random;
+        this.chunk = new byte[chunkRecords * RECORD_BYTES];
+        this.output = ByteBuffer.wrap(chunk);
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(HEADER_BYTES);
+    }
+
+    public void write(String fen, int score, int result) throws IOException, InvalidDataException {
+        scratch.loadFen(fen);
+        write(scratch, score, result);
+    }
+
+    public void write(Board board, int score, int result) throws IOException {
+        write(Position.of(board), score, result);
+    }
+
+    public void write(Position position, int score, int result) throws IOException {
+        if (result < OpeningExplorerIndex.WHITE_WIN || result > OpeningExplorerIndex.BLACK_WIN) {
+            throw new IllegalArgumentException("Invalid result: " + result);
+        }
+        int offset = buffered * RECORD_BYTES;
+        PositionCodec.encode(position, chunk, offset);
+        int clamped = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score));
+        PositionCodec.putShort(chunk, offset + SCORE_OFFSET, clamped);
+        chunk[offset + RESULT_OFFSET] = (byte) result;
+        chunk[offset + RESULT_OFFSET + 1] = 0;
+        records++;
+        if (++buffered * RECORD_BYTES == chunk.length) {
+            drain();
+        }
+    }
+
+    public long getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        drain();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(records).flip();
+        channel.write(header, 0);
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void drain() throws IOException {
+        if (random != null) {
+            for (int i = buffered - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                System.arraycopy(chunk, i * RECORD_BYTES, swap, 0, RECORD_BYTES);
+                System.arraycopy(chunk, j * RECORD_BYTES, chunk, i * RECORD_BYTES, RECORD_BYTES);
+                System.arraycopy(swap, 0, chunk, j * RECORD_BYTES, RECORD_BYTES);
+            }
+        }
+        output.clear().limit(buffered * RECORD_BYTES);
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        buffered = 0;
+    }
+}
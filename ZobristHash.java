@@ -0,0 +1,75 @@
+package com.chess.spring.game;
+
+import com.chess.spring.exceptions.InvalidDataException;
+import com.chess.spring.game.board.Board;
+import com.chess.spring.game.core.analysers.BoardConfiguration;
+
+import java.util.SplittableRandom;
+
+public final class ZobristHash {
+    private static final long SEED = 0x5DEECE66DL;
+    private static final long[][] PIECE_KEYS = new long[PieceCode.COUNT][BoardConfiguration.TILES_MAX];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int code = 0; code < PieceCode.COUNT; code++) {
+            for (int square = 0; square < BoardConfiguration.TILES_MAX; square++) {
+                PIECE_KEYS[code][square] = code == PieceCode.EMPTY ? 0 : random.nextLong();
+            }
+        }
+        long[] castleRights = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int mask = 0; mask < CASTLING_KEYS.length; mask++) {
+            for (int right = 0; right < castleRights.length; right++) {
+                if ((mask & (1 << right)) != 0) {
+                    CASTLING_KEYS[mask] ^= castleRights[right];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    private ZobristHash() {
+    }
+
+    public static long hash(Board board) {
+        long hash = 0;
+        for (int i = 0; i < BoardConfiguration.TILES_MAX; i++) {
+            hash ^= PIECE_KEYS[PieceCode.of(board.getPiece(i))][i];
+        }
+        hash ^= CASTLING_KEYS[FenService.castlingMask(board)];
+        int enPassantSquare = FenService.enPassantSquare(board);
+        if (enPassantSquare >= 0) {
+            hash ^= EN_PASSANT_KEYS[enPassantSquare & 7];
+        }
+        if (!FenService.isWhiteToMove(board)) {
+            hash ^= SIDE_KEY;
+        }
+        return hash;
+    }
+
+    public static long hash(String fen) throws InvalidDataException {
+        return Position.fromFen(fen).hash();
+    }
+
+    public static long piece(int code, int square) {
+        return PIECE_KEYS[code][square];
+    }
+
+    public static long castling(int mask) {
+        return CASTLING_KEYS[mask];
+    }
+
+    public static long enPassant(int square) {
+        return square < 0 ? 0 : EN_PASSANT_KEYS[square & 7];
+    }
+
+    public static long side() {
+        return SIDE_KEY;
+    }
+}